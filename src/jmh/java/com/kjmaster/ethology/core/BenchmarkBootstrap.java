@@ -0,0 +1,143 @@
+package com.kjmaster.ethology.core;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.goal.Goal;
+import net.minecraft.world.entity.animal.Cow;
+import net.minecraft.world.entity.monster.Zombie;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless setup shared by the benchmarks: the vanilla bootstrap (registries, items) without a server or world,
+ * plus stand-in goals shaped like the ones real mobs carry.
+ * <p>
+ * Goals are plain objects until a mob ticks them, so the stand-ins never need an entity.
+ * No inspectors are registered, so every stand-in goes through the wrapper traversal and the generic inspector.
+ */
+public class BenchmarkBootstrap {
+
+    private static boolean bootstrapped;
+
+    public static synchronized void init() {
+        if (bootstrapped) return;
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        bootstrapped = true;
+    }
+
+    /**
+     * Registry access over the built-in registries, enough for item and trait codecs.
+     */
+    public static RegistryAccess registryAccess() {
+        init();
+        return RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY);
+    }
+
+    // --- Synthetic Goal Graphs ---
+
+    /**
+     * A chain of single-child wrappers, like a modded goal decorating a decorator.
+     */
+    public static Goal deepWrappers(int depth) {
+        Goal goal = new TemptLikeGoal();
+        for (int i = 0; i < depth; i++) {
+            goal = new WrapperGoal(goal);
+        }
+        return goal;
+    }
+
+    /**
+     * One parallel goal holding many children, alternating the generic inspector's hit and miss paths.
+     */
+    public static Goal wideParallel(int width) {
+        List<Goal> children = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            children.add(switch (i % 3) {
+                case 0 -> new TemptLikeGoal();
+                case 1 -> new TargetLikeGoal();
+                default -> new PlainGoal();
+            });
+        }
+        return new ParallelGoal(children);
+    }
+
+    /**
+     * A ring of wrappers whose last link points back at the first, so only the visited set stops the traversal.
+     */
+    public static Goal cycle(int length) {
+        WrapperGoal first = new WrapperGoal(null);
+        WrapperGoal current = first;
+        for (int i = 1; i < length; i++) {
+            WrapperGoal next = new WrapperGoal(null);
+            current.inner = next;
+            current = next;
+        }
+        current.inner = first;
+        return first;
+    }
+
+    public static class PlainGoal extends Goal {
+        private int cooldown;
+        private double speedModifier = 1.0;
+
+        @Override
+        public boolean canUse() {
+            return false;
+        }
+    }
+
+    public static class WrapperGoal extends Goal {
+        Goal inner;
+
+        WrapperGoal(Goal inner) {
+            this.inner = inner;
+        }
+
+        @Override
+        public boolean canUse() {
+            return inner != null && inner.canUse();
+        }
+    }
+
+    public static class ParallelGoal extends Goal {
+        private final List<Goal> children;
+        // Never holds goals; the traversal plan should drop it from its declared element type
+        private final List<String> tags = List.of("a", "b");
+
+        ParallelGoal(List<Goal> children) {
+            this.children = children;
+        }
+
+        @Override
+        public boolean canUse() {
+            return false;
+        }
+    }
+
+    /**
+     * Shaped like TemptGoal: an ingredient plus a couple of unrelated fields.
+     */
+    public static class TemptLikeGoal extends PlainGoal {
+        private final Ingredient items = Ingredient.of(Items.WHEAT, Items.CARROT);
+        private final Item fallback = Items.APPLE;
+        private final ItemStack held = ItemStack.EMPTY;
+    }
+
+    /**
+     * Shaped like NearestAttackableTargetGoal or AvoidEntityGoal: a target class.
+     */
+    public static class TargetLikeGoal extends PlainGoal {
+        private final Class<? extends LivingEntity> targetType = Zombie.class;
+        private final Class<? extends LivingEntity> avoidType = Cow.class;
+        private final float maxDistance = 16.0F;
+    }
+}
@@ -0,0 +1,50 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.api.MobTrait;
+import net.minecraft.world.entity.ai.goal.Goal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GenericGoalInspector} on its item hit, entity hit and miss paths, with warm field caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GenericGoalInspectorBenchmark {
+
+    private Goal tempt;
+    private Goal target;
+    private Goal plain;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        tempt = new BenchmarkBootstrap.TemptLikeGoal();
+        target = new BenchmarkBootstrap.TargetLikeGoal();
+        plain = new BenchmarkBootstrap.PlainGoal();
+    }
+
+    @Benchmark
+    public Optional<MobTrait> itemGoal() {
+        return GenericGoalInspector.INSTANCE.inspect(tempt);
+    }
+
+    @Benchmark
+    public Optional<MobTrait> targetGoal() {
+        return GenericGoalInspector.INSTANCE.inspect(target);
+    }
+
+    @Benchmark
+    public Optional<MobTrait> plainGoal() {
+        return GenericGoalInspector.INSTANCE.inspect(plain);
+    }
+}
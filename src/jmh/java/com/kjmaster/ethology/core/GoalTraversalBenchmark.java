@@ -0,0 +1,53 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.api.MobTrait;
+import net.minecraft.world.entity.ai.goal.Goal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Throughput of {@link GoalVisitor#visit} over synthetic goal graphs, with warm traversal plans and field caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GoalTraversalBenchmark {
+
+    @Param({"deep", "wide", "cycle"})
+    public String shape;
+
+    @Param({"8", "64"})
+    public int size;
+
+    private Goal root;
+    private Consumer<MobTrait> sink;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        BenchmarkBootstrap.init();
+        root = switch (shape) {
+            case "deep" -> BenchmarkBootstrap.deepWrappers(size);
+            case "wide" -> BenchmarkBootstrap.wideParallel(size);
+            case "cycle" -> BenchmarkBootstrap.cycle(size);
+            default -> throw new IllegalArgumentException(shape);
+        };
+        sink = blackhole::consume;
+    }
+
+    @Benchmark
+    public void analyzeGoal() {
+        try (GoalVisitor visitor = GoalVisitor.open(sink)) {
+            visitor.visit(root);
+        }
+    }
+}
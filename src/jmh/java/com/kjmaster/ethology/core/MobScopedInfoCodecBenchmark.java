@@ -0,0 +1,95 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.api.MobTrait;
+import com.kjmaster.ethology.api.TraitType;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MobScopedInfo#write}/{@link MobScopedInfo#read} round trips. Trait counts span a passive mob (8 capabilities)
+ * to a busy brain-driven one like a villager (32), each with a quarter as many current states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MobScopedInfoCodecBenchmark {
+
+    private static final Item[] ICONS = {Items.WHEAT, Items.IRON_SWORD, Items.SPYGLASS, Items.TARGET, Items.BELL, Items.BREAD};
+
+    @Param({"8", "32"})
+    public int traitCount;
+
+    private MobScopedInfo info;
+    private RegistryFriendlyByteBuf buffer;
+    private int encodedSize;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        MobScopedInfo.Builder builder = MobScopedInfo.builder(ResourceLocation.withDefaultNamespace("villager"));
+        builder.setUuid(UUID.randomUUID());
+        builder.setMaxHealth(20.0);
+        builder.setMovementSpeed(0.5);
+        for (int i = 0; i < traitCount; i++) {
+            builder.addCapability(trait("capability_" + i, i));
+        }
+        for (int i = 0; i < Math.max(1, traitCount / 4); i++) {
+            builder.addCurrentState(trait("state_" + i, i));
+        }
+        info = builder.build();
+
+        buffer = new RegistryFriendlyByteBuf(Unpooled.buffer(), BenchmarkBootstrap.registryAccess());
+        MobScopedInfo.write(buffer, info);
+        encodedSize = buffer.writerIndex();
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Benchmark
+    public RegistryFriendlyByteBuf write() {
+        buffer.clear();
+        MobScopedInfo.write(buffer, info);
+        return buffer;
+    }
+
+    @Benchmark
+    public MobScopedInfo read() {
+        buffer.setIndex(0, encodedSize);
+        return MobScopedInfo.read(buffer);
+    }
+
+    @Benchmark
+    public MobScopedInfo roundTrip() {
+        buffer.clear();
+        MobScopedInfo.write(buffer, info);
+        return MobScopedInfo.read(buffer);
+    }
+
+    private static MobTrait trait(String path, int i) {
+        // Roughly half the traits carry arguments (item or mob names), as generic inspector results do
+        List<String> args = i % 2 == 0 ? List.of("Wheat", "Carrot") : List.of();
+        return new MobTrait(ResourceLocation.fromNamespaceAndPath("ethology", path), new ItemStack(ICONS[i % ICONS.length]),
+                "ethology.trait." + path, args, i % 3 == 0 ? TraitType.GOAL : TraitType.SENSOR);
+    }
+}
@@ -0,0 +1,52 @@
+package com.kjmaster.ethology.core;
+
+import net.minecraft.world.entity.ai.goal.Goal;
+import net.minecraft.world.item.crafting.Ingredient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field lookups through {@link EthologyReflection}: warm (cached getters) and cold (the class scan after a cache drop).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReflectionBenchmark {
+
+    private Goal tempt;
+    private Goal wrapper;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        tempt = new BenchmarkBootstrap.TemptLikeGoal();
+        wrapper = BenchmarkBootstrap.deepWrappers(1);
+        // Populate the cache for the warm runs
+        EthologyReflection.getAllFieldsOfType(tempt, Ingredient.class);
+        EthologyReflection.getAllFieldsOfType(wrapper, Goal.class);
+    }
+
+    @Benchmark
+    public List<Ingredient> warmLookup() {
+        return EthologyReflection.getAllFieldsOfType(tempt, Ingredient.class);
+    }
+
+    @Benchmark
+    public List<Goal> warmLookupWrapper() {
+        return EthologyReflection.getAllFieldsOfType(wrapper, Goal.class);
+    }
+
+    @Benchmark
+    public List<Ingredient> coldLookup() {
+        EthologyReflection.clearCache();
+        return EthologyReflection.getAllFieldsOfType(tempt, Ingredient.class);
+    }
+}
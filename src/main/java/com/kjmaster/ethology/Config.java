@@ -1,5 +1,6 @@
 package com.kjmaster.ethology;
 
+import com.kjmaster.ethology.core.AnalysisExecutor;
 import net.neoforged.neoforge.common.ModConfigSpec;
 
 public class Config {
@@ -9,5 +10,65 @@ public class Config {
             .comment("If true, any AI Goal that does not have a registered Trait JSON will be displayed in the UI as 'Unknown Goal'. Useful for development.")
             .define("debugMode", false);
 
+    public static final ModConfigSpec.BooleanValue ARCHETYPE_WARMUP = BUILDER
+            .comment("If true, the server analyzes every eligible mob after starting, so the first player to open the Ethology screen does not wait for (or lag) the server.")
+            .define("archetypeWarmup", false);
+
+    public static final ModConfigSpec.IntValue SCAN_TICK_BUDGET_MS = BUILDER
+            .comment("Maximum milliseconds per server tick spent on main-thread analysis work (instantiating mobs, snapshotting targeted mobs), shared by player requests and the warm-up. Leftover work carries over to the next tick.")
+            .defineInRange("scanTickBudgetMs", 5, 1, 50);
+
+    public static final ModConfigSpec.IntValue PLAYER_SCAN_BURST = BUILDER
+            .comment("Scan budget each player can spend at once, in cold-archetype analyses. Cache hits cost a fraction of one.")
+            .defineInRange("playerScanBurst", 10, 1, 1000);
+
+    public static final ModConfigSpec.DoubleValue PLAYER_SCAN_RATE = BUILDER
+            .comment("Scan budget each player regains per second.")
+            .defineInRange("playerScanRate", 2.0, 0.1, 1000.0);
+
+    public static final ModConfigSpec.IntValue SERVER_SCAN_BURST = BUILDER
+            .comment("Scan budget shared by all players at once. Requests beyond either budget are refused with a retry-after.")
+            .defineInRange("serverScanBurst", 40, 1, 10000);
+
+    public static final ModConfigSpec.DoubleValue SERVER_SCAN_RATE = BUILDER
+            .comment("Scan budget shared by all players, regained per second.")
+            .defineInRange("serverScanRate", 10.0, 0.1, 10000.0);
+
+    public static final ModConfigSpec.EnumValue<AnalysisExecutor.Mode> ANALYSIS_EXECUTOR = BUILDER
+            .comment("Threads that run the reflective analysis: PLATFORM (a dedicated pool), VIRTUAL (virtual threads) or MINECRAFT (the game's shared background executor). Applied when a server starts.")
+            .defineEnum("analysisExecutor", AnalysisExecutor.Mode.PLATFORM);
+
+    public static final ModConfigSpec.IntValue ANALYSIS_THREADS = BUILDER
+            .comment("Size of the PLATFORM analysis pool. 0 uses half the available processors.")
+            .defineInRange("analysisThreads", 0, 0, 64);
+
+    public static final ModConfigSpec.IntValue ANALYSIS_QUEUE_CAPACITY = BUILDER
+            .comment("Maximum analyses queued or running at once. While it is full, new main-thread scan work waits and prefetch requests are refused.")
+            .defineInRange("analysisQueueCapacity", 256, 8, 8192);
+
+    public static final ModConfigSpec.BooleanValue PERSIST_ARCHETYPE_CACHE = BUILDER
+            .comment("If true, analyzed archetypes are saved in the world folder and reused after a restart, as long as the mod list and entity registry are unchanged.")
+            .define("persistArchetypeCache", true);
+
+    public static final ModConfigSpec.IntValue ARCHETYPE_CACHE_MEMORY_KB = BUILDER
+            .comment("Approximate memory (in KiB) the server may use for analyzed archetypes. Least recently used entries beyond this are served from disk instead.")
+            .defineInRange("archetypeCacheMemoryKb", 8192, 256, 1048576);
+
+    public static final ModConfigSpec.IntValue WATCH_INTERVAL_TICKS = BUILDER
+            .comment("How often (in ticks) the server samples the current behavior of mobs a player is watching in the Ethology screen.")
+            .defineInRange("watchIntervalTicks", 10, 1, 200);
+
+    public static final ModConfigSpec.IntValue WATCH_RANGE = BUILDER
+            .comment("Maximum distance (in blocks) between a player and a watched mob. Watches beyond it are dropped.")
+            .defineInRange("watchRange", 64, 8, 256);
+
+    public static final ModConfigSpec.IntValue PAYLOAD_COMPRESSION_THRESHOLD = BUILDER
+            .comment("Mob data payloads of at least this many bytes are deflate-compressed before sending.")
+            .defineInRange("payloadCompressionThreshold", 8192, 256, 1048576);
+
+    public static final ModConfigSpec.IntValue PAYLOAD_CHUNK_SIZE = BUILDER
+            .comment("Mob data payloads larger than this many bytes (after compression) are split into chunks the client reassembles.")
+            .defineInRange("payloadChunkSize", 262144, 1024, 1048576);
+
     static final ModConfigSpec SPEC = BUILDER.build();
 }
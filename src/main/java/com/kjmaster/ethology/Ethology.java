@@ -1,6 +1,8 @@
 package com.kjmaster.ethology;
 
 import com.kjmaster.ethology.api.RegisterEthologyInspectorsEvent;
+import com.kjmaster.ethology.core.EntityTypeIndex;
+import com.kjmaster.ethology.core.EthologyMetrics;
 import com.kjmaster.ethology.core.VanillaBrainInspectors;
 import com.kjmaster.ethology.core.VanillaGoalInspectors;
 import com.mojang.logging.LogUtils;
@@ -43,6 +45,12 @@ public class Ethology {
         // Post the custom registration event to the Mod Event Bus.
         // This allows Ethology (and other mods) to register their inspectors safely.
         event.enqueueWork(() -> this.modEventBus.post(new RegisterEthologyInspectorsEvent()));
+
+        // Registries are frozen by now, so the entity class index can be seeded.
+        event.enqueueWork(EntityTypeIndex::rebuild);
+
+        // Lets external monitoring scrape scan pipeline metrics over JMX.
+        EthologyMetrics.registerMBeans();
     }
 
     private void registerInspectors(RegisterEthologyInspectorsEvent event) {
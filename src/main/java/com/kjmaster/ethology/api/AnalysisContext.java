@@ -0,0 +1,41 @@
+package com.kjmaster.ethology.api;
+
+import com.kjmaster.ethology.core.AiSnapshot;
+
+/**
+ * The analysis an {@link AnalysisStage} is contributing to. Only valid during the call it was passed to.
+ */
+public interface AnalysisContext {
+
+    /**
+     * Everything captured from the mob, including stats and environment flags.
+     */
+    AiSnapshot snapshot();
+
+    /**
+     * True when the mob's capabilities are being collected (archetype and instance scans).
+     */
+    boolean collectsCapabilities();
+
+    /**
+     * True when the mob's current state is being collected (instance scans and live state sampling).
+     */
+    boolean collectsCurrentState();
+
+    /**
+     * Adds a capability. Ignored when capabilities are not being collected.
+     */
+    void addCapability(MobTrait trait);
+
+    /**
+     * Adds a current state. Ignored when current state is not being collected.
+     */
+    void addCurrentState(MobTrait trait);
+
+    /**
+     * Adds to the calling stage's score for this analysis, which starts at zero. Other stages have their own.
+     */
+    void addScore(int amount);
+
+    int getScore();
+}
@@ -0,0 +1,55 @@
+package com.kjmaster.ethology.api;
+
+import net.minecraft.world.entity.ai.goal.Goal;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.sensing.Sensor;
+import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.entity.schedule.Activity;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A consumer of the single pass Ethology makes over a mob's AI.
+ * The pipeline walks goals and brain structures once and hands every node to every stage, in registration order,
+ * so adding a stage never adds another pass over the entity.
+ * <p>
+ * Stages are shared across analyses and threads; keep per-analysis state in the {@link AnalysisContext}.
+ * A stage that throws is logged and disabled until the game restarts; traits it added before failing are kept.
+ * Register with {@link RegisterEthologyInspectorsEvent#registerStage(AnalysisStage)}.
+ */
+public interface AnalysisStage {
+
+    /**
+     * Called before any node is visited.
+     */
+    default void begin(AnalysisContext context) {
+    }
+
+    /**
+     * A goal from the goal selector or, if {@code targetSelector}, the target selector (already unwrapped from its
+     * WrappedGoal). {@code running} is only ever true when current state is being collected.
+     */
+    default void onGoal(AnalysisContext context, Goal goal, boolean targetSelector, boolean running) {
+    }
+
+    default void onSensor(AnalysisContext context, SensorType<?> type, Sensor<?> sensor) {
+    }
+
+    /**
+     * A memory the brain can hold, with its current value if it holds one and current state is being collected.
+     */
+    default void onMemory(AnalysisContext context, MemoryModuleType<?> type, @Nullable Object value) {
+    }
+
+    /**
+     * An activity the brain has behaviors for ({@code available}) and/or is currently performing ({@code active}).
+     * {@code active} is only ever true when current state is being collected.
+     */
+    default void onActivity(AnalysisContext context, Activity activity, boolean available, boolean active) {
+    }
+
+    /**
+     * Called after every node has been visited, e.g. to turn an accumulated score into a trait.
+     */
+    default void finish(AnalysisContext context) {
+    }
+}
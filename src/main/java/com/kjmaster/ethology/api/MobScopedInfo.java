@@ -1,28 +1,38 @@
 package com.kjmaster.ethology.api;
 
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.RegistryAccess;
 import net.minecraft.network.RegistryFriendlyByteBuf;
-import net.minecraft.network.codec.ByteBufCodecs;
 import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.codec.StreamDecoder;
+import net.minecraft.network.codec.StreamEncoder;
 import net.minecraft.resources.ResourceLocation;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
-public class MobScopedInfo {
+/**
+ * The analysis of one mob (archetype) or one specific entity (instance, with a UUID).
+ * <p>
+ * Instances are immutable, so they can be cached and shared across threads and players without copying.
+ * Analyses are assembled with a {@link Builder}, which deduplicates traits by id and interns them (see {@link MobTrait#intern}).
+ */
+public final class MobScopedInfo {
 
     private final ResourceLocation entityId;
 
     // Split traits into capabilities and states
-    private final List<MobTrait> capabilities = new ArrayList<>();
-    private final List<MobTrait> currentStates = new ArrayList<>();
+    private final List<MobTrait> capabilities;
+    private final List<MobTrait> currentStates;
 
-    private UUID uuid;
+    private final UUID uuid;
 
-    private double maxHealth;
-    private double attackDamage;
-    private double movementSpeed;
-    private double armor;
+    private final double maxHealth;
+    private final double attackDamage;
+    private final double movementSpeed;
+    private final double armor;
 
     // StreamCodec definition for networking
     public static final StreamCodec<RegistryFriendlyByteBuf, MobScopedInfo> STREAM_CODEC = StreamCodec.of(
@@ -30,47 +40,103 @@ public class MobScopedInfo {
             MobScopedInfo::read
     );
 
-    public MobScopedInfo(ResourceLocation entityId) {
+    private MobScopedInfo(ResourceLocation entityId, List<MobTrait> capabilities, List<MobTrait> currentStates, UUID uuid,
+                          double maxHealth, double attackDamage, double movementSpeed, double armor) {
         this.entityId = entityId;
+        this.capabilities = capabilities;
+        this.currentStates = currentStates;
+        this.uuid = uuid;
+        this.maxHealth = maxHealth;
+        this.attackDamage = attackDamage;
+        this.movementSpeed = movementSpeed;
+        this.armor = armor;
+    }
+
+    public static Builder builder(ResourceLocation entityId) {
+        return new Builder(entityId);
     }
 
     public ResourceLocation getEntityId() { return entityId; }
 
-    // --- Capabilities & States ---
+    // --- Capabilities & States (unmodifiable) ---
     public List<MobTrait> getCapabilities() { return capabilities; }
-    public void addCapability(MobTrait trait) {
-        if (!hasCapability(trait)) this.capabilities.add(trait);
-    }
-
     public List<MobTrait> getCurrentStates() { return currentStates; }
-    public void addCurrentState(MobTrait trait) {
-        if (!hasState(trait)) this.currentStates.add(trait);
-    }
-
-    private boolean hasCapability(MobTrait trait) {
-        return capabilities.stream().anyMatch(t -> t.id().equals(trait.id()));
-    }
-
-    private boolean hasState(MobTrait trait) {
-        return currentStates.stream().anyMatch(t -> t.id().equals(trait.id()));
-    }
 
     // --- Stats & UUID ---
     public UUID getUuid() { return uuid; }
-    public void setUuid(UUID uuid) { this.uuid = uuid; }
-
     public double getMaxHealth() { return maxHealth; }
-    public void setMaxHealth(double maxHealth) { this.maxHealth = maxHealth; }
     public double getAttackDamage() { return attackDamage; }
-    public void setAttackDamage(double attackDamage) { this.attackDamage = attackDamage; }
     public double getMovementSpeed() { return movementSpeed; }
-    public void setMovementSpeed(double movementSpeed) { this.movementSpeed = movementSpeed; }
     public double getArmor() { return armor; }
-    public void setArmor(double armor) { this.armor = armor; }
+
+    // --- Derived Copies (share everything that did not change) ---
+
+    public MobScopedInfo withUuid(UUID uuid) {
+        return new MobScopedInfo(entityId, capabilities, currentStates, uuid, maxHealth, attackDamage, movementSpeed, armor);
+    }
+
+    /**
+     * Returns a copy with the given states replacing the current ones (e.g. after a live state push).
+     */
+    public MobScopedInfo withCurrentStates(List<MobTrait> states) {
+        Map<ResourceLocation, MobTrait> byId = new LinkedHashMap<>();
+        for (MobTrait trait : states) {
+            byId.putIfAbsent(trait.id(), MobTrait.intern(trait));
+        }
+        return new MobScopedInfo(entityId, capabilities, List.copyOf(byId.values()), uuid, maxHealth, attackDamage, movementSpeed, armor);
+    }
+
+    /**
+     * Collects traits and stats during analysis, then freezes them into a {@link MobScopedInfo}.
+     * Traits are deduplicated by id in constant time; the first one added wins. Not thread-safe.
+     */
+    public static final class Builder {
+        private final ResourceLocation entityId;
+        private final Map<ResourceLocation, MobTrait> capabilities = new LinkedHashMap<>();
+        private final Map<ResourceLocation, MobTrait> currentStates = new LinkedHashMap<>();
+
+        private UUID uuid;
+        private double maxHealth;
+        private double attackDamage;
+        private double movementSpeed;
+        private double armor;
+
+        private Builder(ResourceLocation entityId) {
+            this.entityId = entityId;
+        }
+
+        public ResourceLocation getEntityId() { return entityId; }
+
+        public void addCapability(MobTrait trait) {
+            if (!capabilities.containsKey(trait.id())) capabilities.put(trait.id(), MobTrait.intern(trait));
+        }
+
+        public void addCurrentState(MobTrait trait) {
+            if (!currentStates.containsKey(trait.id())) currentStates.put(trait.id(), MobTrait.intern(trait));
+        }
+
+        public void setUuid(UUID uuid) { this.uuid = uuid; }
+        public void setMaxHealth(double maxHealth) { this.maxHealth = maxHealth; }
+        public void setAttackDamage(double attackDamage) { this.attackDamage = attackDamage; }
+        public void setMovementSpeed(double movementSpeed) { this.movementSpeed = movementSpeed; }
+        public void setArmor(double armor) { this.armor = armor; }
+
+        public MobScopedInfo build() {
+            return new MobScopedInfo(entityId, List.copyOf(capabilities.values()), List.copyOf(currentStates.values()), uuid,
+                    maxHealth, attackDamage, movementSpeed, armor);
+        }
+    }
 
     // --- Networking Logic ---
 
     public static void write(RegistryFriendlyByteBuf buffer, MobScopedInfo info) {
+        write(buffer, info, MobTrait.STREAM_CODEC);
+    }
+
+    /**
+     * Writes the info with a custom trait encoding (e.g. the per-connection trait dictionary).
+     */
+    public static void write(RegistryFriendlyByteBuf buffer, MobScopedInfo info, StreamEncoder<RegistryFriendlyByteBuf, MobTrait> traitEncoder) {
         buffer.writeResourceLocation(info.entityId);
 
         // UUID (Optional)
@@ -84,16 +150,25 @@ public class MobScopedInfo {
         buffer.writeDouble(info.movementSpeed);
         buffer.writeDouble(info.armor);
 
-        // Write Capabilities List using the MobTrait codec
-        MobTrait.STREAM_CODEC.apply(ByteBufCodecs.list()).encode(buffer, info.capabilities);
+        // Write Capabilities List using the trait encoder
+        buffer.writeVarInt(info.capabilities.size());
+        info.capabilities.forEach(trait -> traitEncoder.encode(buffer, trait));
 
         // Write States List
-        MobTrait.STREAM_CODEC.apply(ByteBufCodecs.list()).encode(buffer, info.currentStates);
+        buffer.writeVarInt(info.currentStates.size());
+        info.currentStates.forEach(trait -> traitEncoder.encode(buffer, trait));
     }
 
     public static MobScopedInfo read(RegistryFriendlyByteBuf buffer) {
+        return read(buffer, MobTrait.STREAM_CODEC);
+    }
+
+    /**
+     * Reads an info written with the matching {@link #write(RegistryFriendlyByteBuf, MobScopedInfo, StreamEncoder)}.
+     */
+    public static MobScopedInfo read(RegistryFriendlyByteBuf buffer, StreamDecoder<RegistryFriendlyByteBuf, MobTrait> traitDecoder) {
         ResourceLocation id = buffer.readResourceLocation();
-        MobScopedInfo info = new MobScopedInfo(id);
+        Builder info = builder(id);
 
         if (buffer.readBoolean()) {
             info.setUuid(buffer.readUUID());
@@ -105,13 +180,44 @@ public class MobScopedInfo {
         info.setArmor(buffer.readDouble());
 
         // Read Capabilities
-        List<MobTrait> caps = MobTrait.STREAM_CODEC.apply(ByteBufCodecs.list()).decode(buffer);
-        caps.forEach(info::addCapability);
+        int capabilityCount = buffer.readVarInt();
+        for (int i = 0; i < capabilityCount; i++) {
+            info.addCapability(traitDecoder.decode(buffer));
+        }
 
         // Read States
-        List<MobTrait> states = MobTrait.STREAM_CODEC.apply(ByteBufCodecs.list()).decode(buffer);
-        states.forEach(info::addCurrentState);
+        int stateCount = buffer.readVarInt();
+        for (int i = 0; i < stateCount; i++) {
+            info.addCurrentState(traitDecoder.decode(buffer));
+        }
+
+        return info.build();
+    }
 
-        return info;
+    /**
+     * Encodes the info into a standalone byte array, e.g. for storing it on disk.
+     */
+    public static byte[] encode(MobScopedInfo info, RegistryAccess registries) {
+        RegistryFriendlyByteBuf buffer = new RegistryFriendlyByteBuf(Unpooled.buffer(), registries);
+        try {
+            write(buffer, info);
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            return bytes;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Decodes an info previously produced by {@link #encode(MobScopedInfo, RegistryAccess)}.
+     */
+    public static MobScopedInfo decode(byte[] bytes, RegistryAccess registries) {
+        RegistryFriendlyByteBuf buffer = new RegistryFriendlyByteBuf(Unpooled.wrappedBuffer(bytes), registries);
+        try {
+            return read(buffer);
+        } finally {
+            buffer.release();
+        }
     }
-}
\ No newline at end of file
+}
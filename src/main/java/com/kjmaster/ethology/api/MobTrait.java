@@ -1,15 +1,37 @@
 package com.kjmaster.ethology.api;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
 import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.codec.ByteBufCodecs;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * One behavior of a mob, as produced by an inspector.
+ * <p>
+ * Equality compares the icon by item, count and components (not by stack identity), so equal traits can be interned.
+ * Traits stored in a {@link MobScopedInfo} are interned flyweights: identical traits across all mobs share one instance,
+ * and plain icons share one stack per item. The icon of an interned trait is therefore seen by every mob that has
+ * the trait: never mutate it (count, components, damage); copy it first if a caller needs a stack of its own.
+ */
 public record MobTrait(ResourceLocation id, ItemStack icon, String translationKey, List<String> args, TraitType type) {
 
+    private static final Interner<MobTrait> TRAITS = Interners.newWeakInterner();
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+    // One shared stack per item for icons with a count of one and no components. Read-only, see the class doc.
+    private static final Map<Item, ItemStack> PLAIN_ICONS = new ConcurrentHashMap<>();
+    // The canonical traits intern has returned, compared by identity (weak keys), so re-interning one is a lookup
+    private static final Map<MobTrait, Boolean> CANONICAL = new MapMaker().weakKeys().makeMap();
+
     public static final StreamCodec<RegistryFriendlyByteBuf, MobTrait> STREAM_CODEC = StreamCodec.composite(
             ResourceLocation.STREAM_CODEC, MobTrait::id,
             ItemStack.STREAM_CODEC, MobTrait::icon,
@@ -18,4 +40,38 @@ public record MobTrait(ResourceLocation id, ItemStack icon, String translationKe
             ByteBufCodecs.VAR_INT.map(i -> TraitType.values()[i], TraitType::ordinal), MobTrait::type,
             MobTrait::new
     );
-}
\ No newline at end of file
+
+    /**
+     * Returns the shared instance equal to this trait, creating it (with shared icon, key and immutable args) if needed.
+     */
+    public static MobTrait intern(MobTrait trait) {
+        // Fast path: the trait came out of this method before (e.g. an inspector's pre-interned constant)
+        if (CANONICAL.containsKey(trait)) return trait;
+
+        ItemStack icon = trait.icon();
+        if (icon.getCount() == 1 && icon.isComponentsPatchEmpty()) {
+            icon = PLAIN_ICONS.computeIfAbsent(icon.getItem(), ItemStack::new);
+        }
+        List<String> args = trait.args().isEmpty() ? List.of() : trait.args().stream().map(STRINGS::intern).toList();
+        MobTrait canonical = TRAITS.intern(new MobTrait(trait.id(), icon, STRINGS.intern(trait.translationKey()), args, trait.type()));
+        CANONICAL.put(canonical, Boolean.TRUE);
+        return canonical;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MobTrait other)) return false;
+        return type == other.type
+                && id.equals(other.id)
+                && translationKey.equals(other.translationKey)
+                && args.equals(other.args)
+                && icon.getCount() == other.icon.getCount()
+                && ItemStack.isSameItemSameComponents(icon, other.icon);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, translationKey, args, type, ItemStack.hashItemAndComponents(icon));
+    }
+}
@@ -3,6 +3,7 @@ package com.kjmaster.ethology.api;
 import com.kjmaster.ethology.core.EthologyRegistries;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.sensing.Sensor;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.schedule.Activity;
 import net.neoforged.bus.api.Event;
@@ -13,14 +14,34 @@ import net.neoforged.fml.event.IModBusEvent;
  */
 public class RegisterEthologyInspectorsEvent extends Event implements IModBusEvent {
 
+    /**
+     * Registers an inspector for a goal class.
+     * Subclasses without their own registration are dispatched to the nearest registered superclass.
+     */
     public void registerGoal(Class<? extends Goal> goalClass, GoalInspector inspector) {
         EthologyRegistries.registerGoal(goalClass, inspector);
     }
 
+    /**
+     * Registers an inspector for an interface implemented by goals.
+     * Class registrations take precedence over interface registrations.
+     */
+    public void registerGoalInterface(Class<?> goalInterface, GoalInspector inspector) {
+        EthologyRegistries.registerGoalInterface(goalInterface, inspector);
+    }
+
     public void registerSensor(SensorType<?> sensorType, SensorInspector inspector) {
         EthologyRegistries.registerSensor(sensorType, inspector);
     }
 
+    /**
+     * Registers an inspector for a sensor class and its subclasses.
+     * SensorType registrations take precedence over class registrations.
+     */
+    public void registerSensor(Class<? extends Sensor<?>> sensorClass, SensorInspector inspector) {
+        EthologyRegistries.registerSensorClass(sensorClass, inspector);
+    }
+
     public void registerMemory(MemoryModuleType<?> memoryType, MemoryInspector inspector) {
         EthologyRegistries.registerMemory(memoryType, inspector);
     }
@@ -28,4 +49,12 @@ public class RegisterEthologyInspectorsEvent extends Event implements IModBusEve
     public void registerActivity(Activity activity, ActivityInspector inspector) {
         EthologyRegistries.registerActivity(activity, inspector);
     }
+
+    /**
+     * Registers a stage that sees every goal, sensor, memory and activity of each analyzed mob,
+     * during the same pass as Ethology's own stages (which always run first).
+     */
+    public void registerStage(AnalysisStage stage) {
+        EthologyRegistries.registerStage(stage);
+    }
 }
\ No newline at end of file
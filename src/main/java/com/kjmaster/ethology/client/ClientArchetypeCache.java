@@ -0,0 +1,221 @@
+package com.kjmaster.ethology.client;
+
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.api.MobScopedInfo;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.EntityType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client-side, per-server disk cache of archetype analyses.
+ * <p>
+ * Entries are keyed by the server address and validated against the fingerprint the server sends at login.
+ * On a match, cached archetypes are served without touching the network. On a mismatch they are still shown,
+ * but marked stale so the scanner revalidates them with the server in the background, sending the content hash
+ * it holds so unchanged archetypes are confirmed without being re-sent.
+ */
+public class ClientArchetypeCache {
+
+    private static final int MAGIC = 0x45544843; // "ETHC"
+    private static final int FORMAT_VERSION = 2;
+
+    private static final Map<EntityType<?>, MobScopedInfo> ENTRIES = new ConcurrentHashMap<>();
+    private static final Map<EntityType<?>, Long> HASHES = new ConcurrentHashMap<>();
+    private static final Set<EntityType<?>> STALE = ConcurrentHashMap.newKeySet();
+
+    private static Path file;
+    private static RegistryAccess registries;
+    private static long fingerprint;
+    private static boolean dirty;
+
+    /**
+     * Binds the cache to the current server and loads its file in the background.
+     * Called when the server announces its fingerprint.
+     */
+    public static void open(long serverFingerprint) {
+        Minecraft minecraft = Minecraft.getInstance();
+        if (minecraft.getConnection() == null) return;
+
+        ENTRIES.clear();
+        HASHES.clear();
+        STALE.clear();
+        dirty = false;
+        fingerprint = serverFingerprint;
+        file = minecraft.gameDirectory.toPath().resolve(Ethology.MODID).resolve("cache").resolve(getServerKey(minecraft) + ".bin");
+
+        // Kept for the write on logout, when the connection may already be gone.
+        registries = minecraft.getConnection().registryAccess();
+
+        Path path = file;
+        RegistryAccess access = registries;
+        Util.ioPool().execute(() -> load(path, serverFingerprint, access));
+    }
+
+    /**
+     * Returns the cached archetype, or null. Stale entries are returned too; check {@link #isStale(EntityType)}.
+     */
+    public static MobScopedInfo get(EntityType<?> type) {
+        return ENTRIES.get(type);
+    }
+
+    public static boolean isStale(EntityType<?> type) {
+        return STALE.contains(type);
+    }
+
+    /**
+     * Returns the server's content hash for the cached archetype, or 0 if unknown.
+     */
+    public static long getHash(EntityType<?> type) {
+        return HASHES.getOrDefault(type, 0L);
+    }
+
+    /**
+     * Records an archetype received from the server. Instance scans (with a UUID) are not cached.
+     */
+    public static void put(EntityType<?> type, MobScopedInfo info, long contentHash) {
+        if (file == null || info.getUuid() != null) return;
+        ENTRIES.put(type, info);
+        HASHES.put(type, contentHash);
+        STALE.remove(type);
+        dirty = true;
+    }
+
+    /**
+     * The server confirmed that the cached archetype is unchanged. Returns the entry, or null if none is held.
+     */
+    public static MobScopedInfo markFresh(EntityType<?> type) {
+        MobScopedInfo info = ENTRIES.get(type);
+        if (info != null && STALE.remove(type)) {
+            dirty = true;
+        }
+        return info;
+    }
+
+    /**
+     * Writes the cache back in the background (if anything changed) and unbinds it.
+     */
+    public static void close() {
+        if (file != null && dirty) {
+            Map<EntityType<?>, MobScopedInfo> snapshot = new HashMap<>(ENTRIES);
+            Map<EntityType<?>, Long> hashes = new HashMap<>(HASHES);
+            Set<EntityType<?>> stale = Set.copyOf(STALE);
+            Path path = file;
+            long currentFingerprint = fingerprint;
+            RegistryAccess access = registries;
+            Util.ioPool().execute(() -> save(path, currentFingerprint, snapshot, hashes, stale, access));
+        }
+        ENTRIES.clear();
+        HASHES.clear();
+        STALE.clear();
+        file = null;
+        registries = null;
+        dirty = false;
+    }
+
+    private static void load(Path path, long expectedFingerprint, RegistryAccess registries) {
+        if (!Files.exists(path)) return;
+
+        Map<EntityType<?>, MobScopedInfo> loaded = new HashMap<>();
+        Map<EntityType<?>, Long> loadedHashes = new HashMap<>();
+        boolean stale;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return;
+            stale = in.readLong() != expectedFingerprint;
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                ResourceLocation id = ResourceLocation.parse(in.readUTF());
+                long hash = in.readLong();
+                byte[] bytes = in.readNBytes(in.readInt());
+                if (!BuiltInRegistries.ENTITY_TYPE.containsKey(id)) continue;
+                try {
+                    EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.get(id);
+                    loaded.put(type, MobScopedInfo.decode(bytes, registries));
+                    loadedHashes.put(type, hash);
+                } catch (Exception e) {
+                    // One unreadable entry (e.g. an item that no longer exists) should not discard the rest.
+                    stale = true;
+                }
+            }
+        } catch (Exception e) {
+            Ethology.LOGGER.warn("Failed to load client archetype cache {}", path, e);
+            return;
+        }
+
+        final boolean markStale = stale;
+        Minecraft.getInstance().execute(() -> {
+            // The player may have left (or joined another server) while we were reading.
+            if (!path.equals(file)) return;
+            loaded.forEach((type, info) -> {
+                if (ENTRIES.putIfAbsent(type, info) == null) {
+                    HASHES.put(type, loadedHashes.get(type));
+                    if (markStale) STALE.add(type);
+                }
+            });
+            Ethology.LOGGER.debug("Loaded {} cached archetypes for this server ({})", loaded.size(), markStale ? "stale" : "fresh");
+        });
+    }
+
+    private static void save(Path path, long currentFingerprint, Map<EntityType<?>, MobScopedInfo> entries, Map<EntityType<?>, Long> hashes,
+                             Set<EntityType<?>> stale, RegistryAccess registries) {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            Map<EntityType<?>, byte[]> encoded = new HashMap<>();
+            entries.forEach((type, info) -> {
+                // Entries never revalidated against this fingerprint are dropped rather than re-stamped as fresh.
+                if (!stale.contains(type)) {
+                    encoded.put(type, MobScopedInfo.encode(info, registries));
+                }
+            });
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(currentFingerprint);
+                out.writeInt(encoded.size());
+                for (Map.Entry<EntityType<?>, byte[]> entry : encoded.entrySet()) {
+                    out.writeUTF(BuiltInRegistries.ENTITY_TYPE.getKey(entry.getKey()).toString());
+                    out.writeLong(hashes.getOrDefault(entry.getKey(), 0L));
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            Ethology.LOGGER.warn("Failed to save client archetype cache {}", path, e);
+        }
+    }
+
+    private static String getServerKey(Minecraft minecraft) {
+        String key;
+        MinecraftServer integrated = minecraft.getSingleplayerServer();
+        ServerData server = minecraft.getCurrentServer();
+        if (integrated != null) {
+            key = "singleplayer_" + integrated.getWorldData().getLevelName();
+        } else if (server != null) {
+            key = server.ip;
+        } else {
+            key = "unknown";
+        }
+        return key.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+    }
+}
@@ -2,18 +2,32 @@ package com.kjmaster.ethology.client;
 
 import com.kjmaster.ethology.Ethology;
 import com.kjmaster.ethology.core.EthologyDatabase;
+import com.kjmaster.ethology.core.EthologyScanner;
+import com.kjmaster.ethology.network.PayloadStream;
+import com.kjmaster.ethology.network.TraitDictionary;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
 
 @EventBusSubscriber(modid = Ethology.MODID, value = Dist.CLIENT)
 public class ClientEvents {
 
+    @SubscribeEvent
+    public static void onClientTick(ClientTickEvent.Post event) {
+        // Re-sends requests the server refused once their retry-after has passed
+        EthologyScanner.tick();
+    }
+
     @SubscribeEvent
     public static void onPlayerLogout(ClientPlayerNetworkEvent.LoggingOut event) {
-        // Clear static state to prevent data persisting between worlds/servers.
+        // Persist archetypes for the next visit, then clear static state to prevent data persisting between worlds/servers.
+        ClientArchetypeCache.close();
         EthologyDatabase.clear();
+        TraitDictionary.clearClient();
+        PayloadStream.clearClient();
+        EthologyScanner.clearThrottle();
         Ethology.LOGGER.debug("Ethology Database cleared on logout.");
     }
 }
\ No newline at end of file
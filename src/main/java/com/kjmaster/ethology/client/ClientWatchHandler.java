@@ -0,0 +1,28 @@
+package com.kjmaster.ethology.client;
+
+import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.client.gui.EthologyScreen;
+import com.kjmaster.ethology.core.EthologyDatabase;
+import com.kjmaster.ethology.network.MobStateDeltaPayload;
+import net.minecraft.client.Minecraft;
+
+/**
+ * Applies live state pushes for watched mobs to the instance data shown in the Ethology screen.
+ */
+public class ClientWatchHandler {
+
+    public static void handleDelta(MobStateDeltaPayload payload) {
+        if (payload.ended()) {
+            if (Minecraft.getInstance().screen instanceof EthologyScreen screen) {
+                screen.onWatchEnded(payload.entityId());
+            }
+            return;
+        }
+
+        // Deltas only make sense on top of the instance scan they follow; ignore them otherwise.
+        MobScopedInfo info = EthologyDatabase.applyStateDelta(payload.entityId(), payload.added(), payload.removed());
+        if (info != null && Minecraft.getInstance().screen instanceof EthologyScreen screen) {
+            screen.onWatchedStateChanged(payload.entityId(), info);
+        }
+    }
+}
@@ -19,6 +19,9 @@ import org.jetbrains.annotations.Nullable;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
+import java.util.List;
+import java.util.UUID;
+
 public class EthologyScreen extends Screen {
     // Layout Constants
     private static final int HEADER_HEIGHT = 30;
@@ -39,6 +42,10 @@ public class EthologyScreen extends Screen {
     private float xMouse;
     private float yMouse;
 
+    // Live Watch State
+    @Nullable
+    private UUID watchedEntity;
+
     // Debounce State
     private EntityType<?> pendingScanType;
     private long lastSelectionTime;
@@ -84,8 +91,10 @@ public class EthologyScreen extends Screen {
         // Check for crosshair target on open
         Entity crosshairTarget = this.minecraft.crosshairPickEntity;
         if (crosshairTarget instanceof LivingEntity living) {
-            // Trigger State-Aware Scan
+            // Trigger State-Aware Scan, then keep its current state live while the screen is open
             EthologyScanner.scanTargetedEntity(living);
+            this.watchedEntity = living.getUUID();
+            EthologyScanner.watchEntities(List.of(this.watchedEntity));
 
             // Set cached entity to the actual instance for "True" preview
             this.cachedEntity = living;
@@ -111,12 +120,47 @@ public class EthologyScreen extends Screen {
     public void onMobSelected(EntityType<?> type) {
         if (suppressSelectionEvent) return;
 
+        // Already prefetched (or cached): show it right away, nothing to debounce
+        if (EthologyDatabase.get(type) != null) {
+            this.pendingScanType = null;
+            executeScan(type);
+            return;
+        }
+
         // Reset timer and update pending target
         this.pendingScanType = type;
         this.lastSelectionTime = System.currentTimeMillis();
     }
 
+    @Override
+    public void removed() {
+        super.removed();
+        stopWatching();
+    }
+
+    public void onWatchedStateChanged(UUID entityId, MobScopedInfo info) {
+        if (entityId.equals(this.watchedEntity)) {
+            this.infoWidget.refreshInfo(info);
+        }
+    }
+
+    public void onWatchEnded(UUID entityId) {
+        if (entityId.equals(this.watchedEntity)) {
+            this.watchedEntity = null;
+        }
+    }
+
+    private void stopWatching() {
+        if (this.watchedEntity != null) {
+            this.watchedEntity = null;
+            EthologyScanner.watchEntities(List.of());
+        }
+    }
+
     private void executeScan(EntityType<?> type) {
+        // The panel now shows an archetype, so the targeted mob no longer needs live updates
+        stopWatching();
+
         // Trigger Lazy Scan (Archetype)
         EthologyScanner.scanEntity(type);
 
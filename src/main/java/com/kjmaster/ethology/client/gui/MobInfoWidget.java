@@ -28,6 +28,15 @@ public class MobInfoWidget extends ObjectSelectionList<MobInfoWidget.InfoEntry>
         return this.getX() + this.width - 6;
     }
 
+    /**
+     * Rebuilds the panel for the same mob (e.g. after a live state push) without jumping back to the top.
+     */
+    public void refreshInfo(MobScopedInfo info) {
+        double scroll = this.getScrollAmount();
+        this.updateInfo(info);
+        this.setScrollAmount(scroll);
+    }
+
     public void updateInfo(MobScopedInfo info) {
         this.clearEntries();
         this.setScrollAmount(0);
@@ -1,5 +1,6 @@
 package com.kjmaster.ethology.client.gui;
 
+import com.kjmaster.ethology.core.EthologyScanner;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.ObjectSelectionList;
@@ -15,11 +16,24 @@ import net.minecraft.world.item.SpawnEggItem;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 
 public class MobListWidget extends ObjectSelectionList<MobListWidget.MobEntry> {
+    // Prefetch: rows beyond each edge of the viewport that are requested along with the visible ones
+    private static final int PREFETCH_LOOKAHEAD = 4;
+    // Prefetch: how long the viewport must stay put before a request goes out, so fast scrolling sends nothing
+    private static final long PREFETCH_SETTLE_MS = 150;
+
     private final EthologyScreen parent;
 
+    // Prefetch State
+    private int viewportFirst = -1;
+    private int viewportLast = -1;
+    private long viewportChangedAt;
+    private boolean prefetchSent = false;
+
     public MobListWidget(Minecraft minecraft, int width, int height, int top, int itemHeight, EthologyScreen parent) {
         super(minecraft, width, height, top, itemHeight);
         this.parent = parent;
@@ -36,6 +50,46 @@ public class MobListWidget extends ObjectSelectionList<MobListWidget.MobEntry> {
         return this.getX() + this.width - 6;
     }
 
+    @Override
+    public void renderWidget(@NotNull GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
+        super.renderWidget(graphics, mouseX, mouseY, partialTick);
+        this.updatePrefetch();
+    }
+
+    /**
+     * Requests archetypes for the visible rows (plus a look-ahead window) once scrolling settles.
+     * Each new request replaces the previous one on the server, which cancels prefetches for rows scrolled out of view.
+     */
+    private void updatePrefetch() {
+        int count = this.getItemCount();
+        if (count == 0) return;
+
+        int visibleFirst = Math.min(count - 1, (int) (this.getScrollAmount() / this.itemHeight));
+        int first = Math.max(0, visibleFirst - PREFETCH_LOOKAHEAD);
+        int last = Math.min(count - 1, (int) ((this.getScrollAmount() + this.height) / this.itemHeight) + PREFETCH_LOOKAHEAD);
+
+        if (first != this.viewportFirst || last != this.viewportLast) {
+            this.viewportFirst = first;
+            this.viewportLast = last;
+            this.viewportChangedAt = System.currentTimeMillis();
+            this.prefetchSent = false;
+            return;
+        }
+
+        if (this.prefetchSent || System.currentTimeMillis() - this.viewportChangedAt < PREFETCH_SETTLE_MS) return;
+        this.prefetchSent = true;
+
+        // Visible rows first, so they are served before the look-ahead
+        List<EntityType<?>> types = new ArrayList<>();
+        for (int i = visibleFirst; i <= last; i++) {
+            types.add(this.getEntry(i).type);
+        }
+        for (int i = first; i < visibleFirst; i++) {
+            types.add(this.getEntry(i).type);
+        }
+        EthologyScanner.scanEntities(types);
+    }
+
     @Override
     public void setSelected(@Nullable MobEntry entry) {
         super.setSelected(entry);
@@ -47,6 +101,8 @@ public class MobListWidget extends ObjectSelectionList<MobListWidget.MobEntry> {
 
     public void refreshList(String filter) {
         this.clearEntries();
+        this.viewportFirst = -1;
+        this.viewportLast = -1;
         String lowerFilter = filter.toLowerCase();
 
         BuiltInRegistries.ENTITY_TYPE.stream()
@@ -0,0 +1,77 @@
+package com.kjmaster.ethology.command;
+
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.core.AnalysisExecutor;
+import com.kjmaster.ethology.core.ArchetypeWarmup;
+import com.kjmaster.ethology.core.EthologyMetrics;
+import com.kjmaster.ethology.core.ScanScheduler;
+import com.kjmaster.ethology.network.PayloadStream;
+import com.kjmaster.ethology.network.ScanAdmission;
+import com.mojang.brigadier.CommandDispatcher;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+
+/**
+ * Admin commands for inspecting Ethology's server-side work.
+ */
+@EventBusSubscriber(modid = Ethology.MODID)
+public class EthologyCommands {
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(Ethology.MODID)
+                .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("warmup")
+                        // /ethology warmup -> progress of the current (or last) warm-up
+                        .executes(context -> {
+                            context.getSource().sendSuccess(() -> Component.literal("Warm-up " + ArchetypeWarmup.getStatus()), false);
+                            return 1;
+                        })
+                        // /ethology warmup start -> (re)run the warm-up now, regardless of config
+                        .then(Commands.literal("start").executes(context -> {
+                            ArchetypeWarmup.start(context.getSource().getServer());
+                            context.getSource().sendSuccess(() -> Component.literal("Warm-up started"), true);
+                            return 1;
+                        })))
+                // /ethology network -> payload sizes, compression ratio and encode/deflate time
+                .then(Commands.literal("network").executes(context -> {
+                    context.getSource().sendSuccess(() -> Component.literal("Network: " + PayloadStream.getStats()), false);
+                    return 1;
+                }))
+                // /ethology scheduler -> queued main-thread work and per-tick budget use
+                .then(Commands.literal("scheduler").executes(context -> {
+                    context.getSource().sendSuccess(() -> Component.literal("Scheduler: " + ScanScheduler.getStats()), false);
+                    return 1;
+                }))
+                // /ethology stats -> per-phase latency, cache and drop counters, queue depths
+                .then(Commands.literal("stats")
+                        .executes(context -> {
+                            context.getSource().sendSuccess(() -> Component.literal("Ethology stats:\n" + EthologyMetrics.getReport()), false);
+                            return 1;
+                        })
+                        // /ethology stats reset -> start a fresh measurement window
+                        .then(Commands.literal("reset").executes(context -> {
+                            EthologyMetrics.reset();
+                            context.getSource().sendSuccess(() -> Component.literal("Ethology stats reset"), true);
+                            return 1;
+                        })))
+                // /ethology admission -> requests admitted and throttled by the scan budgets
+                .then(Commands.literal("admission").executes(context -> {
+                    context.getSource().sendSuccess(() -> Component.literal("Admission: " + ScanAdmission.getStats()), false);
+                    return 1;
+                }))
+                // /ethology executor -> analysis threads, queue depth and rejections
+                .then(Commands.literal("executor").executes(context -> {
+                    context.getSource().sendSuccess(() -> Component.literal("Executor: " + AnalysisExecutor.getStats()), false);
+                    return 1;
+                })));
+    }
+}
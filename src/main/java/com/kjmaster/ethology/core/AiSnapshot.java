@@ -0,0 +1,108 @@
+package com.kjmaster.ethology.core;
+
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.PathfinderMob;
+import net.minecraft.world.entity.ai.Brain;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import net.minecraft.world.entity.ai.goal.Goal;
+import net.minecraft.world.entity.ai.goal.WrappedGoal;
+import net.minecraft.world.entity.ai.memory.ExpirableValue;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.navigation.AmphibiousPathNavigation;
+import net.minecraft.world.entity.ai.navigation.WaterBoundPathNavigation;
+import net.minecraft.world.entity.ai.sensing.Sensor;
+import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.entity.animal.FlyingAnimal;
+import net.minecraft.world.entity.schedule.Activity;
+import net.minecraft.core.Holder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A cheap copy of everything the parsers read from a mob: goals with their running flags, brain sensors,
+ * memory values and activities, attribute values and a few environment flags.
+ * <p>
+ * Captured on the thread that owns the entity (usually the server thread), in microseconds; the expensive part
+ * (reflective goal traversal and every inspector) can then run on another thread without touching the entity.
+ * Goal, sensor and memory objects are captured by reference, so inspectors must only read them.
+ */
+public record AiSnapshot(EntityType<?> type, UUID uuid, Class<? extends LivingEntity> entityClass,
+                         double maxHealth, double attackDamage, double movementSpeed, double armor,
+                         boolean aquaticNavigation, boolean flying,
+                         List<GoalEntry> goals, List<GoalEntry> targetGoals,
+                         Map<SensorType<?>, Sensor<?>> sensors,
+                         Set<MemoryModuleType<?>> memoryTypes, Map<MemoryModuleType<?>, Object> memoryValues,
+                         Set<Activity> availableActivities, Set<Activity> activeActivities) {
+
+    public record GoalEntry(Goal goal, boolean running) {}
+
+    /**
+     * Must be called on the thread that owns the entity.
+     */
+    public static AiSnapshot capture(LivingEntity entity) {
+        long start = System.nanoTime();
+
+        // 1. Goals
+        List<GoalEntry> goals = List.of();
+        List<GoalEntry> targetGoals = List.of();
+        if (entity instanceof Mob mob) {
+            goals = captureGoals(mob.goalSelector.getAvailableGoals());
+            targetGoals = captureGoals(mob.targetSelector.getAvailableGoals());
+        }
+
+        // 2. Brain
+        Brain<?> brain = entity.getBrain();
+        Map<SensorType<?>, Sensor<?>> sensors = new LinkedHashMap<>(brain.sensors);
+        Set<MemoryModuleType<?>> memoryTypes = new LinkedHashSet<>(brain.memories.keySet());
+        Map<MemoryModuleType<?>, Object> memoryValues = new HashMap<>();
+        for (Map.Entry<MemoryModuleType<?>, Optional<? extends ExpirableValue<?>>> entry : brain.memories.entrySet()) {
+            // Uses the Access Transformer for 'value' field in ExpirableValue
+            entry.getValue().ifPresent(expirable -> {
+                if (expirable.value != null) memoryValues.put(entry.getKey(), expirable.value);
+            });
+        }
+        Set<Activity> availableActivities = new LinkedHashSet<>();
+        for (Map<Activity, ?> innerMap : brain.availableBehaviorsByPriority.values()) {
+            availableActivities.addAll(innerMap.keySet());
+        }
+        Set<Activity> activeActivities = new LinkedHashSet<>(brain.activeActivities);
+
+        // 3. Environment
+        boolean aquatic = entity instanceof PathfinderMob pathfinderMob
+                && (pathfinderMob.getNavigation() instanceof WaterBoundPathNavigation
+                || pathfinderMob.getNavigation() instanceof AmphibiousPathNavigation);
+
+        AiSnapshot snapshot = new AiSnapshot(entity.getType(), entity.getUUID(), entity.getClass(),
+                attribute(entity, Attributes.MAX_HEALTH),
+                attribute(entity, Attributes.ATTACK_DAMAGE),
+                attribute(entity, Attributes.MOVEMENT_SPEED),
+                attribute(entity, Attributes.ARMOR),
+                aquatic, entity instanceof FlyingAnimal,
+                goals, targetGoals, sensors, memoryTypes, memoryValues, availableActivities, activeActivities);
+        EthologyMetrics.record(EthologyMetrics.Phase.SNAPSHOT, System.nanoTime() - start);
+        return snapshot;
+    }
+
+    private static List<GoalEntry> captureGoals(Set<WrappedGoal> wrappedGoals) {
+        List<GoalEntry> entries = new ArrayList<>(wrappedGoals.size());
+        for (WrappedGoal wrapped : wrappedGoals) {
+            entries.add(new GoalEntry(wrapped.getGoal(), wrapped.isRunning()));
+        }
+        return entries;
+    }
+
+    private static double attribute(LivingEntity entity, Holder<Attribute> attribute) {
+        return entity.getAttributes().hasAttribute(attribute) ? entity.getAttributeValue(attribute) : 0;
+    }
+}
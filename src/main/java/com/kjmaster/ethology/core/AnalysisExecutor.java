@@ -0,0 +1,231 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.Config;
+import com.kjmaster.ethology.Ethology;
+import net.minecraft.Util;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerAboutToStartEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The executor that runs reflective analysis off the server thread.
+ * <p>
+ * Created fresh for every server (so an integrated server does not keep threads across world reloads) and drained
+ * when it stops; work that arrives while no server is running is rejected. The backing threads are configurable:
+ * a platform pool, virtual threads, or Minecraft's shared background executor. Whatever backs it, at most
+ * {@code analysisQueueCapacity} tasks may be queued or running; beyond that, submissions are rejected, and callers
+ * check {@link #isSaturated()} to hold back new work first.
+ */
+@EventBusSubscriber(modid = Ethology.MODID)
+public class AnalysisExecutor {
+
+    public enum Mode {
+        /** A dedicated pool of daemon threads. */
+        PLATFORM,
+        /** One virtual thread per task. */
+        VIRTUAL,
+        /** Minecraft's shared background executor (worldgen also runs there). */
+        MINECRAFT
+    }
+
+    // How long a stopping server waits for running analyses before interrupting them.
+    private static final long DRAIN_TIMEOUT_SECONDS = 5;
+
+    private static final Executor EXECUTOR = AnalysisExecutor::execute;
+
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+    private static final AtomicInteger PEAK = new AtomicInteger();
+    private static final AtomicLong COMPLETED = new AtomicLong();
+    private static final AtomicLong REJECTED = new AtomicLong();
+
+    @Nullable
+    private static volatile ExecutorService pool; // null when backed by Minecraft's executor
+    private static volatile Mode mode;
+    private static volatile Semaphore permits;
+    private static volatile int capacity;
+    // Off outside harnesses: a late task after server stop must not create a pool that nobody will shut down
+    private static volatile boolean startOnDemand;
+
+    @SubscribeEvent
+    public static void onServerAboutToStart(ServerAboutToStartEvent event) {
+        start();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        shutdown();
+    }
+
+    /**
+     * The executor to pass to {@code supplyAsync} and friends. Stable across restarts of the backing pool.
+     */
+    public static Executor get() {
+        return EXECUTOR;
+    }
+
+    /**
+     * True when no more tasks can be accepted right now.
+     */
+    public static boolean isSaturated() {
+        Semaphore current = permits;
+        return current != null && current.availablePermits() == 0;
+    }
+
+    /**
+     * Lets work submitted while no server is running start the executor instead of being rejected.
+     * Only for harnesses (benchmarks, tests) that run analyses without a server lifecycle; they own the shutdown.
+     */
+    public static void setStartOnDemand(boolean enabled) {
+        startOnDemand = enabled;
+    }
+
+    /**
+     * (Re)creates the backing executor from the current config. Any previous one is drained first.
+     */
+    public static synchronized void start() {
+        if (permits != null) shutdown();
+
+        mode = Config.ANALYSIS_EXECUTOR.get();
+        capacity = Config.ANALYSIS_QUEUE_CAPACITY.get();
+        int threads = Config.ANALYSIS_THREADS.get() > 0
+                ? Config.ANALYSIS_THREADS.get()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        pool = switch (mode) {
+            case PLATFORM -> {
+                AtomicInteger count = new AtomicInteger();
+                // Unbounded here, since the permits already bound what can be queued
+                yield new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "Ethology-Analyzer-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Ethology-Analyzer-", 1).factory());
+            case MINECRAFT -> null;
+        };
+        permits = new Semaphore(capacity);
+        PEAK.set(0);
+
+        Ethology.LOGGER.debug("Ethology analysis executor started: {}", getStats());
+    }
+
+    /**
+     * Stops accepting work and waits briefly for queued and running analyses to finish.
+     */
+    public static synchronized void shutdown() {
+        Semaphore current = permits;
+        if (current == null) return;
+        permits = null;
+
+        ExecutorService currentPool = pool;
+        pool = null;
+        try {
+            if (currentPool != null) {
+                currentPool.shutdown();
+                if (!currentPool.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    Ethology.LOGGER.warn("Ethology analysis did not finish within {}s of server stop, interrupting", DRAIN_TIMEOUT_SECONDS);
+                    currentPool.shutdownNow();
+                }
+            } else if (!current.tryAcquire(capacity, DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                // The shared executor cannot be shut down; just stop waiting for our tasks on it
+                Ethology.LOGGER.warn("Ethology analysis did not finish within {}s of server stop", DRAIN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (currentPool != null) currentPool.shutdownNow();
+        }
+    }
+
+    private static void execute(Runnable task) {
+        // Work submitted outside a server's lifetime (e.g. a disk-miss fallback after stop) is rejected like a full queue
+        Semaphore current = permits;
+        if (current == null) {
+            if (!startOnDemand) {
+                REJECTED.incrementAndGet();
+                throw new RejectedExecutionException("Ethology analysis executor is not running");
+            }
+            synchronized (AnalysisExecutor.class) {
+                if (permits == null) start();
+                current = permits;
+            }
+        }
+
+        if (!current.tryAcquire()) {
+            REJECTED.incrementAndGet();
+            throw new RejectedExecutionException("Ethology analysis queue is full (" + capacity + " tasks)");
+        }
+        PEAK.accumulateAndGet(QUEUED.incrementAndGet() + ACTIVE.get(), Math::max);
+
+        Semaphore taskPermits = current;
+        Runnable tracked = () -> {
+            QUEUED.decrementAndGet();
+            ACTIVE.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                ACTIVE.decrementAndGet();
+                COMPLETED.incrementAndGet();
+                taskPermits.release();
+            }
+        };
+
+        try {
+            ExecutorService currentPool = pool;
+            if (currentPool != null) {
+                currentPool.execute(tracked);
+            } else {
+                Util.backgroundExecutor().execute(tracked);
+            }
+        } catch (RejectedExecutionException e) {
+            // The pool was shut down between the permit and the hand-off
+            QUEUED.decrementAndGet();
+            taskPermits.release();
+            REJECTED.incrementAndGet();
+            throw e;
+        }
+    }
+
+    public static int getQueued() {
+        return QUEUED.get();
+    }
+
+    public static int getActive() {
+        return ACTIVE.get();
+    }
+
+    public static long getRejected() {
+        return REJECTED.get();
+    }
+
+    /**
+     * Human-readable thread and queue state, shown to admins by the /ethology executor command.
+     */
+    public static String getStats() {
+        Semaphore current = permits;
+        if (current == null) return "stopped";
+
+        String threads = pool instanceof ThreadPoolExecutor platform
+                ? platform.getPoolSize() + " threads"
+                : "shared threads";
+        return String.format("%s (%s), %d active, %d queued, %d/%d capacity used (peak %d), %d completed, %d rejected",
+                mode.name().toLowerCase(Locale.ROOT), mode == Mode.VIRTUAL ? "virtual threads" : threads,
+                ACTIVE.get(), QUEUED.get(), capacity - current.availablePermits(), capacity, PEAK.get(),
+                COMPLETED.get(), REJECTED.get());
+    }
+}
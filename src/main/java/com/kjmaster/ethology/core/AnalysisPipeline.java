@@ -0,0 +1,275 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.api.AnalysisContext;
+import com.kjmaster.ethology.api.AnalysisStage;
+import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.api.MobTrait;
+import net.minecraft.world.entity.ai.goal.Goal;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.sensing.Sensor;
+import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.entity.schedule.Activity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Walks a mob's brain structures and goals once and dispatches every node to every stage: Ethology's own
+ * (goal traits, brain traits, ecological classification) followed by those registered by other mods.
+ * <p>
+ * The context is reused per thread, so a pass allocates nothing beyond what the stages themselves do.
+ */
+public class AnalysisPipeline {
+
+    public enum Mode {
+        /** Capabilities only. */
+        ARCHETYPE(true, false),
+        /** Capabilities and current state. */
+        INSTANCE(true, true),
+        /** Current state only (live state sampling for watched mobs). */
+        STATE(false, true);
+
+        private final boolean capabilities;
+        private final boolean currentState;
+
+        Mode(boolean capabilities, boolean currentState) {
+            this.capabilities = capabilities;
+            this.currentState = currentState;
+        }
+    }
+
+    private static final List<AnalysisStage> BUILT_IN = List.of(GoalParser.STAGE, BrainParser.STAGE, EcologicalClassifier.STAGE);
+
+    // Registered stages that threw; they are skipped from then on so one broken add-on cannot fail every scan
+    private static final Set<AnalysisStage> DISABLED = ConcurrentHashMap.newKeySet();
+    private static final AnalysisStage NONE = new AnalysisStage() {
+    };
+
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+
+    private enum Callback {
+        BEGIN, GOAL, SENSOR, MEMORY, ACTIVITY, FINISH
+    }
+
+    /**
+     * Runs every stage over the snapshot. Each stage's callbacks are timed separately: the goal, brain and classifier
+     * stages under their own phases and all registered stages together under {@link EthologyMetrics.Phase#STAGES}.
+     */
+    public static void run(AiSnapshot snapshot, MobScopedInfo.Builder info, Mode mode) {
+        Context context = CONTEXT.get();
+        // A stage that runs an analysis of its own gets a private context instead of clobbering ours
+        if (context.open) context = new Context();
+
+        context.open(snapshot, info, mode, EthologyRegistries.getStages());
+        try {
+            dispatch(context, Callback.BEGIN);
+
+            // Brain before goals, so capabilities keep the order of the separate brain and goal passes
+            // 1. Brain
+            walkBrain(context, snapshot, mode.currentState);
+
+            // 2. Goals (goal selector, then target selector)
+            walkGoals(context, snapshot.goals(), false, mode.currentState);
+            walkGoals(context, snapshot.targetGoals(), true, mode.currentState);
+
+            dispatch(context, Callback.FINISH);
+
+            EthologyMetrics.record(EthologyMetrics.Phase.GOALS, context.nanos[0]);
+            EthologyMetrics.record(EthologyMetrics.Phase.BRAIN, context.nanos[1]);
+            EthologyMetrics.record(EthologyMetrics.Phase.CLASSIFY, context.nanos[2]);
+            if (context.stageCount > BUILT_IN.size()) {
+                long registered = 0;
+                for (int i = BUILT_IN.size(); i < context.stageCount; i++) registered += context.nanos[i];
+                EthologyMetrics.record(EthologyMetrics.Phase.STAGES, registered);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * The goal visitor shared by this analysis, so the goal stage's visited set spans both selectors.
+     */
+    static GoalVisitor goalVisitor(AnalysisContext context) {
+        return ((Context) context).goals;
+    }
+
+    private static void walkGoals(Context context, List<AiSnapshot.GoalEntry> entries, boolean targetSelector, boolean collectState) {
+        for (int g = 0; g < entries.size(); g++) {
+            AiSnapshot.GoalEntry entry = entries.get(g);
+            context.goal = entry.goal();
+            context.targetSelector = targetSelector;
+            context.active = collectState && entry.running();
+            dispatch(context, Callback.GOAL);
+        }
+    }
+
+    private static void walkBrain(Context context, AiSnapshot snapshot, boolean collectState) {
+        // A. Sensors
+        for (Map.Entry<SensorType<?>, Sensor<?>> sensor : snapshot.sensors().entrySet()) {
+            context.sensorType = sensor.getKey();
+            context.sensor = sensor.getValue();
+            dispatch(context, Callback.SENSOR);
+        }
+
+        // B. Memories (every memory the brain holds a value for is also one it can hold)
+        Map<MemoryModuleType<?>, Object> values = snapshot.memoryValues();
+        for (MemoryModuleType<?> type : snapshot.memoryTypes()) {
+            context.memoryType = type;
+            context.memoryValue = collectState ? values.get(type) : null;
+            dispatch(context, Callback.MEMORY);
+        }
+
+        // C. Activities (available ones, then the rare active one with no registered behaviors)
+        for (Activity activity : snapshot.availableActivities()) {
+            context.activity = activity;
+            context.available = true;
+            context.active = collectState && snapshot.activeActivities().contains(activity);
+            dispatch(context, Callback.ACTIVITY);
+        }
+        if (collectState) {
+            for (Activity activity : snapshot.activeActivities()) {
+                if (snapshot.availableActivities().contains(activity)) continue;
+                context.activity = activity;
+                context.available = false;
+                context.active = true;
+                dispatch(context, Callback.ACTIVITY);
+            }
+        }
+    }
+
+    /**
+     * Hands the current node to every stage in turn, charging each stage for its own time.
+     * A registered stage that throws is logged and disabled; a built-in one fails the analysis as before.
+     */
+    private static void dispatch(Context context, Callback callback) {
+        long last = System.nanoTime();
+        for (int i = 0; i < context.stageCount; i++) {
+            AnalysisStage stage = context.select(i);
+            try {
+                switch (callback) {
+                    case BEGIN -> stage.begin(context);
+                    case GOAL -> stage.onGoal(context, context.goal, context.targetSelector, context.active);
+                    case SENSOR -> stage.onSensor(context, context.sensorType, context.sensor);
+                    case MEMORY -> stage.onMemory(context, context.memoryType, context.memoryValue);
+                    case ACTIVITY -> stage.onActivity(context, context.activity, context.available, context.active);
+                    case FINISH -> stage.finish(context);
+                }
+            } catch (Exception e) {
+                if (i < BUILT_IN.size()) throw e;
+                context.stages[i] = NONE;
+                if (DISABLED.add(stage)) {
+                    Ethology.LOGGER.error("Analysis stage {} failed in {} for {} and has been disabled",
+                            stage.getClass().getName(), callback, context.snapshot.type(), e);
+                }
+            }
+            long now = System.nanoTime();
+            context.nanos[i] += now - last;
+            last = now;
+        }
+    }
+
+    private static final class Context implements AnalysisContext {
+        private AiSnapshot snapshot;
+        private MobScopedInfo.Builder info;
+        private Mode mode;
+        private AnalysisStage[] stages = new AnalysisStage[8];
+        private int stageCount;
+        private int stage;
+        private int[] scores = new int[8];
+        private long[] nanos = new long[8];
+        private GoalVisitor goals;
+        private boolean open;
+
+        // The node being dispatched
+        private Goal goal;
+        private boolean targetSelector;
+        private SensorType<?> sensorType;
+        private Sensor<?> sensor;
+        private MemoryModuleType<?> memoryType;
+        private Object memoryValue;
+        private Activity activity;
+        private boolean available;
+        private boolean active;
+
+        private void open(AiSnapshot snapshot, MobScopedInfo.Builder info, Mode mode, List<AnalysisStage> registered) {
+            this.snapshot = snapshot;
+            this.info = info;
+            this.mode = mode;
+            int capacity = BUILT_IN.size() + registered.size();
+            if (stages.length < capacity) {
+                stages = new AnalysisStage[capacity];
+                scores = new int[capacity];
+                nanos = new long[capacity];
+            }
+            stageCount = 0;
+            for (AnalysisStage builtIn : BUILT_IN) stages[stageCount++] = builtIn;
+            for (AnalysisStage added : registered) {
+                if (!DISABLED.contains(added)) stages[stageCount++] = added;
+            }
+            Arrays.fill(scores, 0, stageCount, 0);
+            Arrays.fill(nanos, 0, stageCount, 0);
+            this.goals = GoalVisitor.open(this);
+            this.open = true;
+        }
+
+        private AnalysisStage select(int index) {
+            stage = index;
+            return stages[index];
+        }
+
+        private void close() {
+            goals.close();
+            goals = null;
+            snapshot = null;
+            info = null;
+            Arrays.fill(stages, 0, stageCount, null);
+            goal = null;
+            sensorType = null;
+            sensor = null;
+            memoryType = null;
+            memoryValue = null;
+            activity = null;
+            open = false;
+        }
+
+        @Override
+        public AiSnapshot snapshot() {
+            return snapshot;
+        }
+
+        @Override
+        public boolean collectsCapabilities() {
+            return mode.capabilities;
+        }
+
+        @Override
+        public boolean collectsCurrentState() {
+            return mode.currentState;
+        }
+
+        @Override
+        public void addCapability(MobTrait trait) {
+            if (mode.capabilities) info.addCapability(trait);
+        }
+
+        @Override
+        public void addCurrentState(MobTrait trait) {
+            if (mode.currentState) info.addCurrentState(trait);
+        }
+
+        @Override
+        public void addScore(int amount) {
+            scores[stage] += amount;
+        }
+
+        @Override
+        public int getScore() {
+            return scores[stage];
+        }
+    }
+}
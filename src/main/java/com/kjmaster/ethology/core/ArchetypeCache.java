@@ -0,0 +1,561 @@
+package com.kjmaster.ethology.core;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.kjmaster.ethology.Config;
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.api.MobTrait;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.ModList;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.server.ServerAboutToStartEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforgespi.language.IModInfo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier cache for analyzed archetypes.
+ * <p>
+ * The memory tier is an LRU bounded by an estimated weight. The disk tier is a compact binary file in the
+ * world's data folder, keyed by a fingerprint of the mod list and entity registry so stale analyses are discarded.
+ * All disk I/O runs on a single background thread; the server thread never waits on it.
+ * <p>
+ * Only entries that are not on disk yet are written, appended to the end of the file. The file is rewritten in full
+ * only when superseded entries take up more space than live ones.
+ */
+@EventBusSubscriber(modid = Ethology.MODID)
+public class ArchetypeCache {
+
+    private static final String FILE_NAME = Ethology.MODID + "_archetypes.bin";
+    private static final int MAGIC = 0x45544843; // "ETHC"
+    // Bump whenever the MobScopedInfo encoding or what an analysis produces changes, so old files are ignored.
+    private static final int FORMAT_VERSION = 2;
+    // Magic, format version and fingerprint come before the entry count.
+    private static final int COUNT_OFFSET = 16;
+    private static final int HEADER_SIZE = COUNT_OFFSET + 4;
+    // Files with less dead space than this are never compacted; it is not worth a rewrite.
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    // Reads and writes share one thread, so a write can never race a read of the file it replaces.
+    private static final ExecutorService IO_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Ethology-Cache-IO");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // --- Memory Tier (server thread only) ---
+    private static final LinkedHashMap<EntityType<?>, MobScopedInfo> MEMORY = new LinkedHashMap<>(64, 0.75f, true);
+    private static final Map<EntityType<?>, Integer> WEIGHTS = new HashMap<>();
+    // Entries in memory whose analysis is not on disk yet.
+    private static final Set<EntityType<?>> DIRTY = new HashSet<>();
+    // Dirty entries evicted from memory; handed to the next write.
+    private static final Map<EntityType<?>, MobScopedInfo> PENDING_WRITES = new HashMap<>();
+    private static long memoryWeight;
+
+    // Content hashes of everything analyzed this session, computed on the analysis thread.
+    // Kept after eviction, since a long per type is cheap.
+    private static final Map<EntityType<?>, Long> HASHES = new ConcurrentHashMap<>();
+
+    // --- Disk Tier ---
+    // Registry id -> location of the encoded entry in the current file. Replaced wholesale after each write.
+    private static volatile Map<ResourceLocation, StoredEntry> diskIndex = Map.of();
+    private static volatile Path file;
+    private static volatile RegistryAccess registries;
+    private static long fingerprint;
+    // Layout of the current file (IO thread only): where the next entry goes, how many entries it holds, and how many
+    // bytes belong to entries superseded by a later append.
+    private static long diskEnd;
+    private static int diskRecords;
+    private static long deadBytes;
+
+    private record StoredEntry(long offset, int length, long hash) {}
+
+    // --- Lifecycle ---
+
+    @SubscribeEvent
+    public static void onServerAboutToStart(ServerAboutToStartEvent event) {
+        open(event.getServer());
+    }
+
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        if (event.getLevel() instanceof ServerLevel level && level.dimension() == Level.OVERWORLD) {
+            saveAsync();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        // Entries evicted during the tick go out in one append rather than one write each
+        if (!PENDING_WRITES.isEmpty()) {
+            saveAsync();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        // The world is saved right before this, so there is usually nothing left to write.
+        // Give the final write a moment to land before the IO thread is abandoned.
+        CompletableFuture<Void> write = saveAsync();
+        try {
+            write.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Ethology.LOGGER.warn("Timed out writing the archetype cache on shutdown", e);
+        }
+        close();
+    }
+
+    /**
+     * Binds the cache to a server and loads the disk index in the background.
+     */
+    public static void open(MinecraftServer server) {
+        close();
+        registries = server.registryAccess();
+        fingerprint = computeFingerprint();
+
+        if (!Config.PERSIST_ARCHETYPE_CACHE.get()) return;
+
+        Path path = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(FILE_NAME);
+        file = path;
+        IO_EXECUTOR.execute(() -> loadIndex(path));
+    }
+
+    /**
+     * Drops both tiers from memory. The file itself is kept, and is appended to by the next save.
+     */
+    public static void close() {
+        clearMemory();
+        diskIndex = Map.of();
+        file = null;
+    }
+
+    // --- Lookup ---
+
+    /**
+     * Returns the archetype if it is held in memory.
+     */
+    public static MobScopedInfo get(EntityType<?> type) {
+        return MEMORY.get(type);
+    }
+
+    public static boolean contains(EntityType<?> type) {
+        return MEMORY.containsKey(type);
+    }
+
+    /**
+     * Returns true if the archetype can be loaded from the disk tier.
+     */
+    public static boolean isStored(EntityType<?> type) {
+        return diskIndex.containsKey(BuiltInRegistries.ENTITY_TYPE.getKey(type));
+    }
+
+    /**
+     * Reads an archetype from the disk tier on the IO thread.
+     * Completes with null if the entry is missing or unreadable.
+     */
+    public static CompletableFuture<MobScopedInfo> loadStored(EntityType<?> type) {
+        ResourceLocation id = BuiltInRegistries.ENTITY_TYPE.getKey(type);
+        return CompletableFuture.supplyAsync(() -> {
+            StoredEntry entry = diskIndex.get(id);
+            Path path = file;
+            RegistryAccess access = registries;
+            if (entry == null || path == null || access == null) return null;
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, entry.offset() + buffer.position()) < 0) return null;
+                }
+                return MobScopedInfo.decode(buffer.array(), access);
+            } catch (Exception e) {
+                Ethology.LOGGER.warn("Failed to read cached archetype {}", id, e);
+                return null;
+            }
+        }, IO_EXECUTOR);
+    }
+
+    /**
+     * Records the content hash of a fresh analysis. Encodes the archetype, so call it on the analysis thread
+     * before the result is handed to {@link #put}.
+     */
+    public static MobScopedInfo computeHash(EntityType<?> type, MobScopedInfo info) {
+        RegistryAccess access = registries;
+        if (access != null) {
+            HASHES.put(type, contentHash(MobScopedInfo.encode(info, access)));
+        }
+        return info;
+    }
+
+    /**
+     * Stores an archetype in the memory tier, evicting least recently used entries beyond the weight budget.
+     * The entry is marked for the next write unless the disk tier already holds the same content.
+     */
+    public static void put(EntityType<?> type, MobScopedInfo info) {
+        if (file != null && !isStoredUnchanged(type)) {
+            DIRTY.add(type);
+            PENDING_WRITES.remove(type);
+        }
+
+        MobScopedInfo previous = MEMORY.put(type, info);
+        if (previous != null) {
+            memoryWeight -= WEIGHTS.getOrDefault(type, 0);
+        }
+        int weight = estimateWeight(info);
+        WEIGHTS.put(type, weight);
+        memoryWeight += weight;
+
+        long maxWeight = Config.ARCHETYPE_CACHE_MEMORY_KB.get() * 1024L;
+        Iterator<Map.Entry<EntityType<?>, MobScopedInfo>> iterator = MEMORY.entrySet().iterator();
+        while (memoryWeight > maxWeight && iterator.hasNext()) {
+            Map.Entry<EntityType<?>, MobScopedInfo> eldest = iterator.next();
+            if (eldest.getKey() == type) continue; // Never evict what we just inserted
+
+            iterator.remove();
+            memoryWeight -= WEIGHTS.remove(eldest.getKey());
+
+            // Fall back to the disk tier: anything not on disk yet is written at the end of the tick.
+            if (DIRTY.remove(eldest.getKey())) {
+                PENDING_WRITES.put(eldest.getKey(), eldest.getValue());
+            }
+        }
+    }
+
+    private static boolean isStoredUnchanged(EntityType<?> type) {
+        StoredEntry stored = diskIndex.get(BuiltInRegistries.ENTITY_TYPE.getKey(type));
+        if (stored == null) return false;
+        // No hash means the entry was loaded from disk rather than analyzed
+        Long hash = HASHES.get(type);
+        return hash == null || hash == stored.hash();
+    }
+
+    /**
+     * Returns a stable hash of the archetype's encoded content, if it has been analyzed this session or is stored on disk.
+     * Clients send it back to skip re-downloading an archetype that has not changed.
+     */
+    public static OptionalLong getContentHash(EntityType<?> type) {
+        Long hash = HASHES.get(type);
+        if (hash != null) return OptionalLong.of(hash);
+
+        StoredEntry stored = diskIndex.get(BuiltInRegistries.ENTITY_TYPE.getKey(type));
+        return stored != null ? OptionalLong.of(stored.hash()) : OptionalLong.empty();
+    }
+
+    /**
+     * Fingerprint of the mod list and entity registry this server analyzes with.
+     */
+    public static long getFingerprint() {
+        return fingerprint;
+    }
+
+    public static int size() {
+        return MEMORY.size();
+    }
+
+    public static long getMemoryWeight() {
+        return memoryWeight;
+    }
+
+    public static int getStoredCount() {
+        return diskIndex.size();
+    }
+
+    public static void clearMemory() {
+        MEMORY.clear();
+        WEIGHTS.clear();
+        DIRTY.clear();
+        PENDING_WRITES.clear();
+        HASHES.clear();
+        memoryWeight = 0;
+    }
+
+    // --- Disk I/O ---
+
+    /**
+     * Writes the archetypes that are not on disk yet (dirty memory entries and pending evictions) in the background,
+     * and does nothing if there are none. The snapshot is taken on the calling (server) thread; encoding and writing
+     * happen on the IO thread.
+     */
+    public static CompletableFuture<Void> saveAsync() {
+        Path path = file;
+        RegistryAccess access = registries;
+        if (path == null || access == null || (DIRTY.isEmpty() && PENDING_WRITES.isEmpty())) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Map<ResourceLocation, MobScopedInfo> snapshot = new HashMap<>();
+        PENDING_WRITES.forEach((type, info) -> snapshot.put(BuiltInRegistries.ENTITY_TYPE.getKey(type), info));
+        for (EntityType<?> type : DIRTY) {
+            snapshot.put(BuiltInRegistries.ENTITY_TYPE.getKey(type), MEMORY.get(type));
+        }
+        PENDING_WRITES.clear();
+        DIRTY.clear();
+
+        long currentFingerprint = fingerprint;
+        return CompletableFuture.runAsync(() -> writeFile(path, snapshot, access, currentFingerprint), IO_EXECUTOR);
+    }
+
+    private static void loadIndex(Path path) {
+        diskEnd = 0;
+        diskRecords = 0;
+        deadBytes = 0;
+        if (!Files.exists(path)) return;
+
+        long start = System.nanoTime();
+        Map<ResourceLocation, StoredEntry> index = new HashMap<>();
+        int count;
+        long end;
+        long dead = 0;
+        try (CountingInputStream counting = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path)));
+             DataInputStream in = new DataInputStream(counting)) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readLong() != fingerprint) {
+                Ethology.LOGGER.info("Discarding stale archetype cache {} (mods or entity types changed)", path.getFileName());
+                return;
+            }
+
+            count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                ResourceLocation id = ResourceLocation.parse(in.readUTF());
+                int length = in.readInt();
+                long offset = counting.position;
+                // Later appends supersede earlier entries for the same type
+                StoredEntry superseded = index.put(id, new StoredEntry(offset, length, contentHash(in.readNBytes(length))));
+                if (superseded != null) dead += superseded.length();
+            }
+            end = counting.position;
+        } catch (Exception e) {
+            Ethology.LOGGER.warn("Failed to load archetype cache index from {}", path, e);
+            return;
+        }
+
+        // Ignore the result if the server moved on (e.g. integrated server closed) while we were reading.
+        if (path.equals(file)) {
+            diskIndex = Map.copyOf(index);
+            diskEnd = end;
+            diskRecords = count;
+            deadBytes = dead;
+            Ethology.LOGGER.debug("Loaded {} cached archetypes in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static void writeFile(Path path, Map<ResourceLocation, MobScopedInfo> fresh, RegistryAccess access, long currentFingerprint) {
+        try {
+            Map<ResourceLocation, byte[]> encoded = new LinkedHashMap<>();
+            fresh.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(Comparator.comparing(ResourceLocation::toString)))
+                    .forEach(e -> encoded.put(e.getKey(), MobScopedInfo.encode(e.getValue(), access)));
+
+            if (diskEnd >= HEADER_SIZE && Files.exists(path)) {
+                appendEntries(path, encoded);
+                long liveBytes = diskEnd - HEADER_SIZE - deadBytes;
+                if (deadBytes < MIN_COMPACT_BYTES || deadBytes < liveBytes) return;
+                // Mostly superseded entries by now; a rewrite with nothing new copies every live entry across.
+                encoded.clear();
+            }
+            rewriteFile(path, encoded, currentFingerprint);
+        } catch (Exception e) {
+            Ethology.LOGGER.warn("Failed to write archetype cache to {}", path, e);
+        }
+    }
+
+    /**
+     * Appends entries after the last one in the file, then bumps the entry count.
+     * A crash before the count is written leaves the previous entries intact, with unread bytes at the end.
+     */
+    private static void appendEntries(Path path, Map<ResourceLocation, byte[]> encoded) throws IOException {
+        Map<ResourceLocation, StoredEntry> index = new HashMap<>(diskIndex);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        long dead = deadBytes;
+        for (Map.Entry<ResourceLocation, byte[]> entry : encoded.entrySet()) {
+            out.writeUTF(entry.getKey().toString());
+            out.writeInt(entry.getValue().length);
+            StoredEntry superseded = index.put(entry.getKey(),
+                    new StoredEntry(diskEnd + out.size(), entry.getValue().length, contentHash(entry.getValue())));
+            if (superseded != null) dead += superseded.length();
+            out.write(entry.getValue());
+        }
+
+        long end = diskEnd;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer entries = ByteBuffer.wrap(bytes.toByteArray());
+            while (entries.hasRemaining()) {
+                end += channel.write(entries, end);
+            }
+            channel.force(false);
+
+            ByteBuffer count = ByteBuffer.allocate(4).putInt(0, diskRecords + encoded.size());
+            while (count.hasRemaining()) {
+                channel.write(count, COUNT_OFFSET + count.position());
+            }
+        }
+
+        diskEnd = end;
+        diskRecords += encoded.size();
+        deadBytes = dead;
+        if (path.equals(file)) {
+            diskIndex = Map.copyOf(index);
+        }
+    }
+
+    /**
+     * Replaces the file with the given entries plus every stored entry they do not supersede.
+     */
+    private static void rewriteFile(Path path, Map<ResourceLocation, byte[]> encoded, long currentFingerprint) throws IOException {
+        Map<ResourceLocation, StoredEntry> oldIndex = diskIndex;
+        Map<ResourceLocation, StoredEntry> newIndex = new HashMap<>();
+        Path temp = path.resolveSibling(FILE_NAME + ".tmp");
+
+        Files.createDirectories(path.getParent());
+
+        // Stored entries that are not being replaced are copied across verbatim.
+        try (FileChannel source = Files.exists(path) && !oldIndex.isEmpty() ? FileChannel.open(path, StandardOpenOption.READ) : null) {
+            if (source != null) {
+                for (Map.Entry<ResourceLocation, StoredEntry> stored : oldIndex.entrySet()) {
+                    if (encoded.containsKey(stored.getKey())) continue;
+                    ByteBuffer buffer = ByteBuffer.allocate(stored.getValue().length());
+                    while (buffer.hasRemaining()) {
+                        if (source.read(buffer, stored.getValue().offset() + buffer.position()) < 0) break;
+                    }
+                    if (!buffer.hasRemaining()) {
+                        encoded.put(stored.getKey(), buffer.array());
+                    }
+                }
+            }
+        }
+
+        if (encoded.isEmpty()) return;
+
+        long end;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(currentFingerprint);
+            out.writeInt(encoded.size());
+            for (Map.Entry<ResourceLocation, byte[]> entry : encoded.entrySet()) {
+                out.writeUTF(entry.getKey().toString());
+                out.writeInt(entry.getValue().length);
+                newIndex.put(entry.getKey(), new StoredEntry(out.size(), entry.getValue().length, contentHash(entry.getValue())));
+                out.write(entry.getValue());
+            }
+            end = out.size();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        diskEnd = end;
+        diskRecords = encoded.size();
+        deadBytes = 0;
+        if (path.equals(file)) {
+            diskIndex = Map.copyOf(newIndex);
+        }
+    }
+
+    // --- Helpers ---
+
+    /**
+     * Identifies the set of mods and entity types the cached analyses were produced with.
+     */
+    private static long computeFingerprint() {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(FORMAT_VERSION);
+
+        ModList.get().getMods().stream()
+                .sorted(Comparator.comparing(IModInfo::getModId))
+                .forEach(mod -> hasher.putUnencodedChars(mod.getModId()).putUnencodedChars(mod.getVersion().toString()));
+
+        for (EntityType<?> type : BuiltInRegistries.ENTITY_TYPE) {
+            hasher.putUnencodedChars(BuiltInRegistries.ENTITY_TYPE.getKey(type).toString());
+            hasher.putInt(BuiltInRegistries.ENTITY_TYPE.getId(type));
+        }
+        return hasher.hash().asLong();
+    }
+
+    private static long contentHash(byte[] encoded) {
+        return Hashing.murmur3_128().hashBytes(encoded).asLong();
+    }
+
+    /**
+     * Rough heap footprint of an analysis, in bytes. Only needs to be proportional, not exact.
+     */
+    private static int estimateWeight(MobScopedInfo info) {
+        int weight = 128;
+        for (MobTrait trait : info.getCapabilities()) weight += estimateWeight(trait);
+        for (MobTrait trait : info.getCurrentStates()) weight += estimateWeight(trait);
+        return weight;
+    }
+
+    private static int estimateWeight(MobTrait trait) {
+        int weight = 160 + trait.translationKey().length() * 2;
+        for (String arg : trait.args()) weight += 48 + arg.length() * 2;
+        return weight;
+    }
+
+    /**
+     * Tracks how many bytes have been consumed, so entry offsets can be recorded while reading the index.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long position;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) position++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            position += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.Ethology;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-world record of how often players requested each archetype.
+ * Persisted with the world, so the warm-up of the next session can analyze popular mobs first.
+ */
+public class ArchetypeDemand extends SavedData {
+
+    private static final String DATA_NAME = Ethology.MODID + "_demand";
+
+    private static final SavedData.Factory<ArchetypeDemand> FACTORY = new SavedData.Factory<>(
+            ArchetypeDemand::new,
+            ArchetypeDemand::load,
+            null
+    );
+
+    // Keyed by registry id so counts survive mods being added or removed.
+    private final Map<ResourceLocation, Integer> requests = new HashMap<>();
+
+    public static ArchetypeDemand get(MinecraftServer server) {
+        return server.overworld().getDataStorage().computeIfAbsent(FACTORY, DATA_NAME);
+    }
+
+    public void record(EntityType<?> type) {
+        requests.merge(BuiltInRegistries.ENTITY_TYPE.getKey(type), 1, Integer::sum);
+        setDirty();
+    }
+
+    public int getRequests(EntityType<?> type) {
+        return requests.getOrDefault(BuiltInRegistries.ENTITY_TYPE.getKey(type), 0);
+    }
+
+    private static ArchetypeDemand load(CompoundTag tag, HolderLookup.Provider registries) {
+        ArchetypeDemand demand = new ArchetypeDemand();
+        for (String key : tag.getAllKeys()) {
+            ResourceLocation id = ResourceLocation.tryParse(key);
+            if (id != null) {
+                demand.requests.put(id, tag.getInt(key));
+            }
+        }
+        return demand;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        requests.forEach((id, count) -> tag.putInt(id.toString(), count));
+        return tag;
+    }
+}
@@ -0,0 +1,140 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.Config;
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.EthologyTags;
+import com.kjmaster.ethology.network.EthologyPacketHandler;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.ai.attributes.DefaultAttributes;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optionally fills the archetype cache after the server starts.
+ * Scans are fed to the {@link ScanScheduler} at prefetch priority, so mobs are instantiated within the shared
+ * per-tick budget and player requests always go first, while parsing runs on the analysis executor.
+ * Types are warmed in order of past demand, so the mobs players actually browse are ready first.
+ */
+@EventBusSubscriber(modid = Ethology.MODID)
+public class ArchetypeWarmup {
+
+    // Caps the number of warm-up scans queued or analyzing at once, so the queue stays short and new player requests join it quickly.
+    private static final int MAX_IN_FLIGHT = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final Deque<EntityType<?>> QUEUE = new ArrayDeque<>();
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger COMPLETED = new AtomicInteger();
+    private static final AtomicInteger FAILED = new AtomicInteger();
+
+    private static volatile boolean running = false;
+    private static int total;
+    private static long startedAt;
+    private static long finishedAt;
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        if (!Config.ARCHETYPE_WARMUP.get()) return;
+        start(event.getServer());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        stop();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (!running) return;
+
+        MinecraftServer server = event.getServer();
+        ServerLevel level = server.overworld();
+
+        // Top up the scheduler; it decides how much of it runs this tick.
+        while (!QUEUE.isEmpty() && IN_FLIGHT.get() < MAX_IN_FLIGHT) {
+            EntityType<?> type = QUEUE.poll();
+            if (EthologyPacketHandler.isArchetypeCached(type)) {
+                COMPLETED.incrementAndGet();
+                continue;
+            }
+
+            IN_FLIGHT.incrementAndGet();
+            EthologyPacketHandler.scanArchetype(type, level, ScanScheduler.Priority.PREFETCH, null).whenComplete((info, ex) -> {
+                IN_FLIGHT.decrementAndGet();
+                if (info != null) {
+                    COMPLETED.incrementAndGet();
+                } else {
+                    FAILED.incrementAndGet();
+                }
+            });
+        }
+
+        if (QUEUE.isEmpty() && IN_FLIGHT.get() == 0) {
+            running = false;
+            finishedAt = System.nanoTime();
+            Ethology.LOGGER.info("Ethology warm-up finished: {}", getStatus());
+        }
+    }
+
+    /**
+     * Queues every eligible entity type, most requested first, and starts draining on the next tick.
+     */
+    public static void start(MinecraftServer server) {
+        ArchetypeDemand demand = ArchetypeDemand.get(server);
+        List<EntityType<?>> eligible = BuiltInRegistries.ENTITY_TYPE.stream()
+                .filter(ArchetypeWarmup::isEligible)
+                .sorted(Comparator.comparingInt((EntityType<?> type) -> demand.getRequests(type)).reversed())
+                .toList();
+
+        QUEUE.clear();
+        QUEUE.addAll(eligible);
+        COMPLETED.set(0);
+        FAILED.set(0);
+        total = eligible.size();
+        startedAt = System.nanoTime();
+        finishedAt = 0;
+        running = true;
+
+        Ethology.LOGGER.info("Ethology warm-up started for {} entity types ({} ms/tick budget)", total, Config.SCAN_TICK_BUDGET_MS.get());
+    }
+
+    public static void stop() {
+        QUEUE.clear();
+        running = false;
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Human-readable progress, shown to admins by the /ethology warmup command.
+     */
+    public static String getStatus() {
+        if (total == 0) return "not started";
+
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        return String.format("%s %d/%d analyzed, %d skipped, %d in flight, %.1fs elapsed",
+                running ? "running:" : "done:",
+                COMPLETED.get(), total, FAILED.get(), IN_FLIGHT.get(),
+                (end - startedAt) / 1.0e9);
+    }
+
+    private static boolean isEligible(EntityType<?> type) {
+        // Same checks as a player request, plus only types with attributes (i.e. living entities)
+        return type.canSummon()
+                && !type.is(EthologyTags.NO_ANALYSIS)
+                && DefaultAttributes.hasSupplier(type);
+    }
+}
@@ -1,88 +1,72 @@
 package com.kjmaster.ethology.core;
 
 import com.kjmaster.ethology.api.ActivityInspector;
+import com.kjmaster.ethology.api.AnalysisContext;
+import com.kjmaster.ethology.api.AnalysisStage;
 import com.kjmaster.ethology.api.MemoryInspector;
-import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.api.MobTrait;
 import com.kjmaster.ethology.api.SensorInspector;
-import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.world.entity.ai.Brain;
-import net.minecraft.world.entity.ai.memory.ExpirableValue;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.Sensor;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.schedule.Activity;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Analysis stage for brain traits: sensors, memories and activities, as capabilities and current state.
+ */
 public class BrainParser {
 
-    // Helper: Static Traits (Capabilities)
-    public static void parseCapabilities(LivingEntity entity, MobScopedInfo info) {
-        Brain<?> brain = entity.getBrain();
+    public static final AnalysisStage STAGE = new AnalysisStage() {
 
-        // 1. Sensors
-        // Map<SensorType<? extends Sensor<? super E>>, Sensor<? super E>>
-        for (var entry : brain.sensors.entrySet()) {
-            SensorType<?> type = entry.getKey();
-            Sensor<?> sensor = entry.getValue();
-
-            SensorInspector inspector = EthologyRegistries.getSensorInspector(type);
+        // 1. Sensors (Static Capabilities)
+        @Override
+        public void onSensor(AnalysisContext context, SensorType<?> type, Sensor<?> sensor) {
+            if (!context.collectsCapabilities()) return;
+            SensorInspector inspector = EthologyRegistries.getSensorInspector(type, sensor);
             if (inspector != null) {
-                inspector.inspect(type, sensor).ifPresent(info::addCapability);
+                EthologyEvents.InspectorCall event = EthologyEvents.beginInspectorCall();
+                inspector.inspect(type, sensor).ifPresent(context::addCapability);
+                EthologyEvents.endInspectorCall(event, "sensor", sensor, inspector);
             }
         }
 
-        // 2. Memories (Potential)
-        // Check what memories are registered in the brain schema
-        for (MemoryModuleType<?> type : brain.memories.keySet()) {
+        // 2. Memories: what the brain can remember (capability) and what it is thinking about right now (state)
+        @Override
+        public void onMemory(AnalysisContext context, MemoryModuleType<?> type, @Nullable Object value) {
             MemoryInspector inspector = EthologyRegistries.getMemoryInspector(type);
-            if (inspector != null) {
-                // Pass empty value for capability check (we only care that it CAN remember this)
-                inspector.inspect(type, Optional.empty()).ifPresent(info::addCapability);
-            }
-        }
+            if (inspector == null) return;
 
-        // 3. Activities (Potential Behaviors)
-        // Map<Integer, Map<Activity, Set<Behavior<? super E>>>>
-        for (Map<Activity, ?> innerMap : brain.availableBehaviorsByPriority.values()) {
-            for (Activity activity : innerMap.keySet()) {
-                ActivityInspector inspector = EthologyRegistries.getActivityInspector(activity);
-                if (inspector != null) {
-                    inspector.inspect(activity).ifPresent(info::addCapability);
-                }
+            if (context.collectsCapabilities()) {
+                // Pass empty value for capability check (we only care that it CAN remember this)
+                EthologyEvents.InspectorCall event = EthologyEvents.beginInspectorCall();
+                inspector.inspect(type, Optional.empty()).ifPresent(context::addCapability);
+                EthologyEvents.endInspectorCall(event, "memory", type, inspector);
             }
-        }
-    }
-
-    // Helper: Dynamic State
-    public static void parseCurrentState(LivingEntity entity, MobScopedInfo info) {
-        Brain<?> brain = entity.getBrain();
-
-        // 1. Active Memories (What is the mob thinking about RIGHT NOW?)
-        // Map<MemoryModuleType<?>, Optional<? extends ExpirableValue<?>>>
-        for (Map.Entry<MemoryModuleType<?>, Optional<? extends ExpirableValue<?>>> entry : brain.memories.entrySet()) {
-            // Check if the memory actually has a value stored
-            if (entry.getValue().isPresent()) {
-                MemoryModuleType<?> type = entry.getKey();
-
-                // Access the raw value via the ExpirableValue wrapper
-                // Uses the Access Transformer for 'value' field in ExpirableValue
-                Object rawValue = entry.getValue().get().value;
-
-                MemoryInspector inspector = EthologyRegistries.getMemoryInspector(type);
-                if (inspector != null) {
-                    inspector.inspect(type, Optional.ofNullable(rawValue)).ifPresent(info::addCurrentState);
-                }
+            if (value != null) {
+                EthologyEvents.InspectorCall event = EthologyEvents.beginInspectorCall();
+                inspector.inspect(type, Optional.of(value)).ifPresent(context::addCurrentState);
+                EthologyEvents.endInspectorCall(event, "memory", type, inspector);
             }
         }
 
-        // 2. Active Activities (What is the mob doing RIGHT NOW?)
-        for (Activity activity : brain.activeActivities) {
+        // 3. Activities: potential behaviors (capability) and what the mob is doing right now (state)
+        @Override
+        public void onActivity(AnalysisContext context, Activity activity, boolean available, boolean active) {
+            boolean capability = available && context.collectsCapabilities();
+            if (!capability && !active) return;
             ActivityInspector inspector = EthologyRegistries.getActivityInspector(activity);
-            if (inspector != null) {
-                inspector.inspect(activity).ifPresent(info::addCurrentState);
-            }
+            if (inspector == null) return;
+
+            // Same trait either way, so the inspector only runs once
+            EthologyEvents.InspectorCall event = EthologyEvents.beginInspectorCall();
+            Optional<MobTrait> trait = inspector.inspect(activity);
+            EthologyEvents.endInspectorCall(event, "activity", activity, inspector);
+            if (trait.isEmpty()) return;
+            if (capability) context.addCapability(trait.get());
+            if (active) context.addCurrentState(trait.get());
         }
-    }
-}
\ No newline at end of file
+    };
+}
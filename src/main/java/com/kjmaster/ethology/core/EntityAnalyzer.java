@@ -1,81 +1,80 @@
 package com.kjmaster.ethology.core;
 
-import com.kjmaster.ethology.Ethology;
-import com.kjmaster.ethology.EthologyTags;
 import com.kjmaster.ethology.api.MobScopedInfo;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.world.entity.ai.attributes.Attributes;
 import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
 
 public class EntityAnalyzer {
 
     /**
-     * Archetype Analysis: Static capabilities only.
+     * Archetype Preparation: creates a throwaway entity of the type (never added to the level), ticks it once so its
+     * AI is set up, and snapshots it. Must run on the server thread; the snapshot is then analyzed like an instance.
+     * Returns null for types whose entities are not living. Construction errors propagate to the caller.
      */
-    public static MobScopedInfo analyze(EntityType<?> type, Level level) {
-        ResourceLocation key = BuiltInRegistries.ENTITY_TYPE.getKey(type);
-        if (type.is(EthologyTags.NO_ANALYSIS)) return null;
-        if (!type.canSummon()) return null;
-
+    @Nullable
+    public static AiSnapshot snapshotArchetype(EntityType<?> type, Level level) {
+        long start = System.nanoTime();
+        Entity entity = type.create(level);
+        if (!(entity instanceof LivingEntity living)) {
+            if (entity != null) entity.discard();
+            return null;
+        }
         try {
-            Entity entity = type.create(level);
-            if (!(entity instanceof LivingEntity living)) {
-                if (entity != null) entity.discard();
-                return null;
-            }
-
-            MobScopedInfo info = new MobScopedInfo(key);
-
-            // 1. Stats (Base)
-            extractStats(living, info);
-
-            // 2. Capabilities
-            BrainParser.parseCapabilities(living, info);
-            GoalParser.parseCapabilities(living, info);
-            EcologicalClassifier.classify(living, info);
-
+            try { living.tick(); } catch (Exception ignored) {}
+            EthologyMetrics.record(EthologyMetrics.Phase.INSTANTIATE, System.nanoTime() - start);
+            return AiSnapshot.capture(living);
+        } finally {
             living.discard();
-            return info;
-        } catch (Exception e) {
-            Ethology.LOGGER.warn("Failed to instantiate entity archetype for analysis: {}", key, e);
-            return null;
         }
     }
 
     /**
      * Instance Analysis: Capabilities + Current State.
+     * Must be called on the thread that owns the entity; see {@link #analyze(AiSnapshot)} to analyze elsewhere.
      */
     public static MobScopedInfo analyze(LivingEntity living) {
-        MobScopedInfo info = new MobScopedInfo(BuiltInRegistries.ENTITY_TYPE.getKey(living.getType()));
-        info.setUuid(living.getUUID());
+        return analyze(AiSnapshot.capture(living));
+    }
 
-        // 1. Stats (Current)
-        extractStats(living, info);
+    /**
+     * Instance Analysis from a snapshot. Does not touch the entity, so it can run on any thread.
+     */
+    public static MobScopedInfo analyze(AiSnapshot snapshot) {
+        ResourceLocation key = BuiltInRegistries.ENTITY_TYPE.getKey(snapshot.type());
+        EthologyEvents.setCurrentEntity(key.toString());
+        try {
+            return analyzeSnapshot(key, snapshot);
+        } finally {
+            EthologyEvents.clearCurrentEntity();
+        }
+    }
+
+    private static MobScopedInfo analyzeSnapshot(ResourceLocation key, AiSnapshot snapshot) {
+        MobScopedInfo.Builder info = MobScopedInfo.builder(key);
+        info.setUuid(snapshot.uuid());
 
-        // 2. Capabilities
-        BrainParser.parseCapabilities(living, info);
-        GoalParser.parseCapabilities(living, info);
-        EcologicalClassifier.classify(living, info);
+        // Teach the name index which class this type produces, so goals targeting it resolve by name.
+        EntityTypeIndex.record(snapshot.type(), snapshot.entityClass());
+
+        // 1. Stats (Current)
+        extractStats(snapshot, info);
 
-        // 3. Current State
-        BrainParser.parseCurrentState(living, info);
-        GoalParser.parseCurrentState(living, info);
+        // 2. Capabilities + Current State, in a single pass
+        AnalysisPipeline.run(snapshot, info, AnalysisPipeline.Mode.INSTANCE);
 
-        return info;
+        return info.build();
     }
 
-    private static void extractStats(LivingEntity entity, MobScopedInfo info) {
-        if (entity.getAttributes().hasAttribute(Attributes.MAX_HEALTH))
-            info.setMaxHealth(entity.getAttributeValue(Attributes.MAX_HEALTH));
-        if (entity.getAttributes().hasAttribute(Attributes.ATTACK_DAMAGE))
-            info.setAttackDamage(entity.getAttributeValue(Attributes.ATTACK_DAMAGE));
-        if (entity.getAttributes().hasAttribute(Attributes.MOVEMENT_SPEED))
-            info.setMovementSpeed(entity.getAttributeValue(Attributes.MOVEMENT_SPEED));
-        if (entity.getAttributes().hasAttribute(Attributes.ARMOR))
-            info.setArmor(entity.getAttributeValue(Attributes.ARMOR));
+    private static void extractStats(AiSnapshot snapshot, MobScopedInfo.Builder info) {
+        // Missing attributes are captured as 0, which is also the builder's default
+        info.setMaxHealth(snapshot.maxHealth());
+        info.setAttackDamage(snapshot.attackDamage());
+        info.setMovementSpeed(snapshot.movementSpeed());
+        info.setArmor(snapshot.armor());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.kjmaster.ethology.core;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps entity classes to the EntityTypes that produce them.
+ * Used to turn the Class fields found in goals (targets, avoid/breed partners) into readable mob names
+ * without streaming the whole entity registry on every lookup.
+ * <p>
+ * Seeded from declared base classes; concrete classes are learned from the entities the analyzers already create,
+ * so nothing is instantiated just to build the index. With the archetype warm-up enabled, every type is recorded
+ * under the warm-up's tick budget.
+ */
+public class EntityTypeIndex {
+
+    // Exact index: concrete entity class -> the types known to produce it, in registry order.
+    private static final Map<Class<?>, List<EntityType<?>>> BY_CLASS = new ConcurrentHashMap<>();
+
+    // Memoized hierarchy lookups for classes that are not indexed exactly (e.g. AbstractVillager, Monster).
+    // Replaced whenever the exact index grows, since a new class can become the most specific match.
+    private static volatile ClassValue<Optional<EntityType<?>>> LOOKUPS = createLookupCache();
+
+    /**
+     * Seeds the index from the frozen entity registry.
+     * Should run once registration has finished (Common Setup).
+     */
+    public static void rebuild() {
+        BY_CLASS.clear();
+        for (EntityType<?> type : BuiltInRegistries.ENTITY_TYPE) {
+            // Vanilla types report Entity.class here; only types that declare a real base class are useful.
+            Class<?> baseClass = type.getBaseClass();
+            if (baseClass != Entity.class) {
+                addUnchecked(type, baseClass);
+            }
+        }
+        LOOKUPS = createLookupCache();
+    }
+
+    /**
+     * Records the concrete class of an entity instance created for analysis.
+     * Cheap when the class is already known, so it can be called on every scan.
+     */
+    public static void record(EntityType<?> type, Class<?> entityClass) {
+        List<EntityType<?>> known = BY_CLASS.get(entityClass);
+        if (known != null && known.contains(type)) return;
+
+        synchronized (BY_CLASS) {
+            addUnchecked(type, entityClass);
+            LOOKUPS = createLookupCache();
+        }
+    }
+
+    /**
+     * Finds the most specific EntityType whose entities are instances of the given class.
+     * Exact matches win; otherwise the closest indexed subclass is used, with ties broken by registry order.
+     */
+    public static Optional<EntityType<?>> findMostSpecific(Class<?> clazz) {
+        if (clazz == null) return Optional.empty();
+
+        List<EntityType<?>> exact = BY_CLASS.get(clazz);
+        if (exact != null && !exact.isEmpty()) return Optional.of(exact.getFirst());
+
+        return LOOKUPS.get(clazz);
+    }
+
+    private static void addUnchecked(EntityType<?> type, Class<?> entityClass) {
+        BY_CLASS.compute(entityClass, (k, existing) -> {
+            List<EntityType<?>> types = existing == null ? new ArrayList<>(1) : new ArrayList<>(existing);
+            if (!types.contains(type)) {
+                types.add(type);
+                types.sort(Comparator.comparingInt(BuiltInRegistries.ENTITY_TYPE::getId));
+            }
+            return List.copyOf(types);
+        });
+    }
+
+    private static Optional<EntityType<?>> resolveHierarchy(Class<?> clazz) {
+        EntityType<?> best = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (Map.Entry<Class<?>, List<EntityType<?>>> entry : BY_CLASS.entrySet()) {
+            Class<?> candidate = entry.getKey();
+            if (!clazz.isAssignableFrom(candidate) || entry.getValue().isEmpty()) continue;
+
+            int distance = distance(candidate, clazz);
+            EntityType<?> type = entry.getValue().getFirst();
+            if (distance < bestDistance || (distance == bestDistance
+                    && BuiltInRegistries.ENTITY_TYPE.getId(type) < BuiltInRegistries.ENTITY_TYPE.getId(best))) {
+                best = type;
+                bestDistance = distance;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Number of superclass steps from the candidate up to the queried class.
+     * Interfaces have no single path, so they rank candidates by overall depth instead.
+     */
+    private static int distance(Class<?> candidate, Class<?> ancestor) {
+        int steps = 0;
+        for (Class<?> current = candidate; current != null; current = current.getSuperclass()) {
+            if (current == ancestor) return steps;
+            steps++;
+        }
+        return steps;
+    }
+
+    private static ClassValue<Optional<EntityType<?>>> createLookupCache() {
+        return new ClassValue<>() {
+            @Override
+            protected Optional<EntityType<?>> computeValue(Class<?> type) {
+                return resolveHierarchy(type);
+            }
+        };
+    }
+}
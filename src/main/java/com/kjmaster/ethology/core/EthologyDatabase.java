@@ -1,9 +1,14 @@
 package com.kjmaster.ethology.core;
 
 import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.api.MobTrait;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.EntityType;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -45,6 +50,32 @@ public class EthologyDatabase {
         return null;
     }
 
+    /**
+     * Applies a live state push to a cached instance and refreshes its timestamp.
+     * Returns the updated info, or null if the instance is not cached.
+     */
+    public static MobScopedInfo applyStateDelta(UUID uuid, List<MobTrait> added, List<ResourceLocation> removed) {
+        MobScopedInfo previous = INSTANCE_CACHE.get(uuid);
+        if (previous == null) return null;
+
+        // A changed state (same id, new args) replaces the old one
+        Map<ResourceLocation, MobTrait> states = new LinkedHashMap<>();
+        previous.getCurrentStates().forEach(trait -> states.put(trait.id(), trait));
+        removed.forEach(states::remove);
+        added.forEach(trait -> states.put(trait.id(), trait));
+
+        MobScopedInfo info = previous.withCurrentStates(List.copyOf(states.values()));
+        INSTANCE_CACHE.put(uuid, info);
+        CACHE_TIMESTAMPS.put(uuid, System.currentTimeMillis());
+
+        // Keep the type entry pointing at the live instance if it was showing it
+        EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.get(info.getEntityId());
+        if (DATABASE.get(type) == previous) {
+            DATABASE.put(type, info);
+        }
+        return info;
+    }
+
     public static Map<EntityType<?>, MobScopedInfo> getAll() {
         return DATABASE;
     }
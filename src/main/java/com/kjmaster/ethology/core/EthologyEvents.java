@@ -0,0 +1,203 @@
+package com.kjmaster.ethology.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.EntityType;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Java Flight Recorder events for Ethology work, so a recording of a lag spike names the mob, goal or inspector
+ * behind it instead of showing anonymous time on the server and analyzer threads.
+ * <p>
+ * Events follow the usual JFR pattern (create, {@code begin()}, work, {@code commit()}); while recording is off the
+ * event object is never filled in (inspector calls do not even create one), and the allocation counter is only read
+ * for enabled events.
+ * The allocation figure is the thread's allocated bytes over the event, so it includes anything nested inside it.
+ */
+public class EthologyEvents {
+
+    private static final String CATEGORY = "Ethology";
+
+    // Entity type being analyzed on this thread, so events raised deep inside the parsers can name it.
+    private static final ThreadLocal<String> CURRENT_ENTITY = new ThreadLocal<>();
+
+    @Nullable
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported() ? threads : null;
+
+    private static final EventType INSPECTOR_CALL = EventType.getEventType(InspectorCall.class);
+
+    @Name("ethology.ArchetypeScan")
+    @Label("Archetype Scan")
+    @Category(CATEGORY)
+    @Description("Instantiating (server thread) or analyzing (analyzer thread) an entity archetype")
+    @StackTrace(false)
+    public static final class ArchetypeScan extends Event {
+        @Label("Entity Type")
+        String entityType;
+        @Label("Stage")
+        String stage;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+        transient long allocationStart;
+    }
+
+    @Name("ethology.InstanceScan")
+    @Label("Instance Scan")
+    @Category(CATEGORY)
+    @Description("Snapshotting (server thread) or analyzing (analyzer thread) a targeted mob")
+    @StackTrace(false)
+    public static final class InstanceScan extends Event {
+        @Label("Entity Type")
+        String entityType;
+        @Label("Stage")
+        String stage;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+        transient long allocationStart;
+    }
+
+    @Name("ethology.FieldPlanBuild")
+    @Label("Field Plan Build")
+    @Category(CATEGORY)
+    @Description("Reflective scan of a class hierarchy for fields of one type, done once per class and field type")
+    @StackTrace(false)
+    public static final class FieldPlanBuild extends Event {
+        @Label("Entity Type")
+        String entityType;
+        @Label("Goal Class")
+        Class<?> goalClass;
+        @Label("Field Type")
+        Class<?> fieldType;
+        @Label("Fields Found")
+        int fieldCount;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+        transient long allocationStart;
+    }
+
+    @Name("ethology.InspectorCall")
+    @Label("Inspector Call")
+    @Category(CATEGORY)
+    @Description("A single goal, sensor, memory or activity inspector invocation")
+    @StackTrace(false)
+    public static final class InspectorCall extends Event {
+        @Label("Entity Type")
+        String entityType;
+        @Label("Kind")
+        String kind;
+        @Label("Goal Class")
+        @Description("Class of the inspected goal, sensor, memory type or activity")
+        Class<?> goalClass;
+        @Label("Inspector")
+        Class<?> inspector;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+        transient long allocationStart;
+    }
+
+    public static ArchetypeScan beginArchetypeScan() {
+        ArchetypeScan event = new ArchetypeScan();
+        if (event.isEnabled()) {
+            event.allocationStart = allocatedBytes();
+            event.begin();
+        }
+        return event;
+    }
+
+    public static void endArchetypeScan(ArchetypeScan event, EntityType<?> entityType, String stage) {
+        if (!event.shouldCommit()) return;
+        event.entityType = BuiltInRegistries.ENTITY_TYPE.getKey(entityType).toString();
+        event.stage = stage;
+        event.allocated = allocatedBytes() - event.allocationStart;
+        event.commit();
+    }
+
+    public static InstanceScan beginInstanceScan() {
+        InstanceScan event = new InstanceScan();
+        if (event.isEnabled()) {
+            event.allocationStart = allocatedBytes();
+            event.begin();
+        }
+        return event;
+    }
+
+    public static void endInstanceScan(InstanceScan event, EntityType<?> entityType, String stage) {
+        if (!event.shouldCommit()) return;
+        event.entityType = BuiltInRegistries.ENTITY_TYPE.getKey(entityType).toString();
+        event.stage = stage;
+        event.allocated = allocatedBytes() - event.allocationStart;
+        event.commit();
+    }
+
+    public static FieldPlanBuild beginFieldPlanBuild() {
+        FieldPlanBuild event = new FieldPlanBuild();
+        if (event.isEnabled()) {
+            event.allocationStart = allocatedBytes();
+            event.begin();
+        }
+        return event;
+    }
+
+    public static void endFieldPlanBuild(FieldPlanBuild event, Class<?> goalClass, Class<?> fieldType, int fieldCount) {
+        if (!event.shouldCommit()) return;
+        event.entityType = CURRENT_ENTITY.get();
+        event.goalClass = goalClass;
+        event.fieldType = fieldType;
+        event.fieldCount = fieldCount;
+        event.allocated = allocatedBytes() - event.allocationStart;
+        event.commit();
+    }
+
+    /**
+     * Returns null while the event is not being recorded: inspector calls are frequent enough that even an unused
+     * event object per call shows up in allocation profiles.
+     */
+    @Nullable
+    public static InspectorCall beginInspectorCall() {
+        if (!INSPECTOR_CALL.isEnabled()) return null;
+        InspectorCall event = new InspectorCall();
+        event.allocationStart = allocatedBytes();
+        event.begin();
+        return event;
+    }
+
+    public static void endInspectorCall(@Nullable InspectorCall event, String kind, Object inspected, Object inspector) {
+        if (event == null || !event.shouldCommit()) return;
+        event.entityType = CURRENT_ENTITY.get();
+        event.kind = kind;
+        event.goalClass = inspected.getClass();
+        event.inspector = inspector.getClass();
+        event.allocated = allocatedBytes() - event.allocationStart;
+        event.commit();
+    }
+
+    /**
+     * Names the entity type analyzed on this thread until {@link #clearCurrentEntity()}.
+     */
+    public static void setCurrentEntity(String entityType) {
+        CURRENT_ENTITY.set(entityType);
+    }
+
+    public static void clearCurrentEntity() {
+        CURRENT_ENTITY.remove();
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+}
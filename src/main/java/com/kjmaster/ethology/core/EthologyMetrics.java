@@ -0,0 +1,244 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.Ethology;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms for each phase of the scan pipeline, plus counters for what happened to requests.
+ * <p>
+ * Recording is a few atomic adds, so it is always on. Histograms use power-of-two nanosecond buckets, so
+ * percentiles are upper bounds within a factor of two. Shown by {@code /ethology stats} and exported as JMX MBeans
+ * under {@code com.kjmaster.ethology}.
+ */
+public class EthologyMetrics {
+
+    public enum Phase {
+        /** Charging a request against the admission budgets. */
+        ADMISSION,
+        /** Creating and ticking a throwaway archetype entity (main thread). */
+        INSTANTIATE,
+        /** Copying a mob's AI state (main thread). */
+        SNAPSHOT,
+        /** Sampling and diffing one watched mob's current state (main thread). */
+        WATCH,
+        /** The brain trait stage's share of one analysis pass. */
+        BRAIN,
+        /** The goal trait stage's share of one analysis pass. */
+        GOALS,
+        /** The ecological classifier stage's share of one analysis pass. */
+        CLASSIFY,
+        /** Stages registered by other mods, together, in one analysis pass. */
+        STAGES,
+        /** Serializing (and compressing) a payload. */
+        ENCODE,
+        /** Handing a payload's packets to the connection. */
+        SEND
+    }
+
+    public enum Counter {
+        ARCHETYPE_CACHE_HIT,
+        ARCHETYPE_CACHE_MISS,
+        /** Misses served from the on-disk tier instead of a fresh analysis. */
+        ARCHETYPE_DISK_LOAD,
+        /** Requests that joined an archetype scan already in flight. */
+        SCAN_COALESCED,
+        REQUEST_THROTTLED,
+        /** Prefetches refused because the analysis queue was full. */
+        PREFETCH_REFUSED
+    }
+
+    private static final Histogram[] PHASES = new Histogram[Phase.values().length];
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+
+    static {
+        for (int i = 0; i < PHASES.length; i++) PHASES[i] = new Histogram();
+        for (int i = 0; i < COUNTERS.length; i++) COUNTERS[i] = new LongAdder();
+    }
+
+    public static void record(Phase phase, long nanos) {
+        PHASES[phase.ordinal()].record(nanos);
+    }
+
+    public static void increment(Counter counter) {
+        COUNTERS[counter.ordinal()].increment();
+    }
+
+    public static long get(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    public static Histogram get(Phase phase) {
+        return PHASES[phase.ordinal()];
+    }
+
+    public static void reset() {
+        for (Histogram histogram : PHASES) histogram.reset();
+        for (LongAdder counter : COUNTERS) counter.reset();
+    }
+
+    /**
+     * Human-readable report, one line per phase followed by counters and queue gauges.
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            Histogram histogram = get(phase);
+            report.append(String.format("%s: %d, mean %.3fms, p50 %.3fms, p99 %.3fms, max %.3fms%n",
+                    name(phase), histogram.getCount(), histogram.getMean() / 1.0e6,
+                    histogram.getPercentile(0.5) / 1.0e6, histogram.getPercentile(0.99) / 1.0e6, histogram.getMaxNanos() / 1.0e6));
+        }
+
+        long hits = get(Counter.ARCHETYPE_CACHE_HIT);
+        long misses = get(Counter.ARCHETYPE_CACHE_MISS);
+        report.append(String.format("archetype cache: %d hits, %d misses (%.1f%% hit rate, %d from disk), %d coalesced%n",
+                hits, misses, hits + misses == 0 ? 0 : hits * 100.0 / (hits + misses),
+                get(Counter.ARCHETYPE_DISK_LOAD), get(Counter.SCAN_COALESCED)));
+        report.append(String.format("dropped: %d throttled, %d prefetches refused, %d analyses rejected%n",
+                get(Counter.REQUEST_THROTTLED), get(Counter.PREFETCH_REFUSED), AnalysisExecutor.getRejected()));
+        report.append(String.format("queues: %d main-thread tasks, %d analyses queued, %d running",
+                ScanScheduler.getQueueDepth(), AnalysisExecutor.getQueued(), AnalysisExecutor.getActive()));
+        return report.toString();
+    }
+
+    /**
+     * Registers one MBean per phase and one for the counters. Safe to call more than once.
+     */
+    public static void registerMBeans() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (Phase phase : Phase.values()) {
+                ObjectName name = new ObjectName("com.kjmaster.ethology:type=Phase,name=" + name(phase));
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(new StandardMBean(get(phase), PhaseMBean.class), name);
+                }
+            }
+            ObjectName counters = new ObjectName("com.kjmaster.ethology:type=Counters");
+            if (!server.isRegistered(counters)) {
+                server.registerMBean(new StandardMBean(new Counters(), CountersMBean.class), counters);
+            }
+        } catch (Exception e) {
+            // Monitoring is optional; never fail startup over it
+            Ethology.LOGGER.warn("Failed to register Ethology JMX metrics", e);
+        }
+    }
+
+    private static String name(Phase phase) {
+        return phase.name().toLowerCase(Locale.ROOT);
+    }
+
+    public interface PhaseMBean {
+        long getCount();
+        double getMeanMillis();
+        double getP50Millis();
+        double getP99Millis();
+        double getMaxMillis();
+    }
+
+    public interface CountersMBean {
+        long getArchetypeCacheHits();
+        long getArchetypeCacheMisses();
+        long getArchetypeDiskLoads();
+        long getScansCoalesced();
+        long getRequestsThrottled();
+        long getPrefetchesRefused();
+        long getAnalysesRejected();
+        int getSchedulerQueueDepth();
+        int getExecutorQueueDepth();
+        int getExecutorActive();
+    }
+
+    /**
+     * Lock-free latency histogram with one bucket per power of two nanoseconds.
+     */
+    public static final class Histogram implements PhaseMBean {
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(value | 1));
+            count.increment();
+            total.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        /**
+         * Upper bound of the bucket holding the given quantile, in nanoseconds.
+         */
+        public long getPercentile(double quantile) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(quantile * n);
+            long seen = 0;
+            for (int i = 0; i < 64; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) return Math.min(max.get(), i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1);
+            }
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) total.sum() / n;
+        }
+
+        public long getMaxNanos() {
+            return max.get();
+        }
+
+        public void reset() {
+            for (int i = 0; i < 64; i++) buckets.set(i, 0);
+            count.reset();
+            total.reset();
+            max.set(0);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return getMean() / 1.0e6;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return getPercentile(0.5) / 1.0e6;
+        }
+
+        @Override
+        public double getP99Millis() {
+            return getPercentile(0.99) / 1.0e6;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return max.get() / 1.0e6;
+        }
+    }
+
+    private static final class Counters implements CountersMBean {
+        @Override public long getArchetypeCacheHits() { return get(Counter.ARCHETYPE_CACHE_HIT); }
+        @Override public long getArchetypeCacheMisses() { return get(Counter.ARCHETYPE_CACHE_MISS); }
+        @Override public long getArchetypeDiskLoads() { return get(Counter.ARCHETYPE_DISK_LOAD); }
+        @Override public long getScansCoalesced() { return get(Counter.SCAN_COALESCED); }
+        @Override public long getRequestsThrottled() { return get(Counter.REQUEST_THROTTLED); }
+        @Override public long getPrefetchesRefused() { return get(Counter.PREFETCH_REFUSED); }
+        @Override public long getAnalysesRejected() { return AnalysisExecutor.getRejected(); }
+        @Override public int getSchedulerQueueDepth() { return ScanScheduler.getQueueDepth(); }
+        @Override public int getExecutorQueueDepth() { return AnalysisExecutor.getQueued(); }
+        @Override public int getExecutorActive() { return AnalysisExecutor.getActive(); }
+    }
+}
@@ -1,12 +1,17 @@
 package com.kjmaster.ethology.core;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Utility class for safe, deep reflection.
@@ -14,9 +19,15 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class EthologyReflection {
 
-    // Cache: TargetClass -> (FieldType -> List<Field>)
-    // We cache the actual Field objects so we only pay the lookup and setAccessible cost once.
-    private static final Map<Class<?>, Map<Class<?>, List<Field>>> FIELD_CACHE = new ConcurrentHashMap<>();
+    // Every accessor is adapted to this shape so reads can use invokeExact.
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final FieldAccessor[] NO_ACCESSORS = new FieldAccessor[0];
+
+    // Cache: TargetClass -> (FieldType -> FieldAccessor[])
+    // The table for a class is stored through a ClassValue, so it lives and dies with the class itself
+    // instead of pinning unloaded mod classes in a static map.
+    // We compile each Field into a getter handle once, so reads skip Field.get's access checks.
+    private static volatile ClassValue<ClassAccessors> ACCESSORS = createAccessorCache();
 
     /**
      * Recursively searches the object's class hierarchy (up to Object.class)
@@ -30,17 +41,10 @@ public class EthologyReflection {
     public static <T> Optional<T> getFirstFieldOfType(Object target, Class<T> typeToFind) {
         if (target == null) return Optional.empty();
 
-        List<Field> fields = getCachedFields(target.getClass(), typeToFind);
-
-        for (Field field : fields) {
-            try {
-                // We assume setAccessible(true) was already done during caching
-                Object value = field.get(target);
-                if (typeToFind.isInstance(value)) {
-                    return Optional.of(typeToFind.cast(value));
-                }
-            } catch (Throwable ignored) {
-                // Swallow exceptions during field access
+        for (FieldAccessor accessor : getAccessors(target.getClass(), typeToFind)) {
+            Object value = accessor.read(target);
+            if (typeToFind.isInstance(value)) {
+                return Optional.of(typeToFind.cast(value));
             }
         }
         return Optional.empty();
@@ -57,36 +61,59 @@ public class EthologyReflection {
     public static <T> List<T> getAllFieldsOfType(Object target, Class<T> typeToFind) {
         if (target == null) return Collections.emptyList();
 
-        List<Field> fields = getCachedFields(target.getClass(), typeToFind);
-        List<T> results = new ArrayList<>(fields.size());
+        FieldAccessor[] accessors = getAccessors(target.getClass(), typeToFind);
+        if (accessors.length == 0) return Collections.emptyList();
 
-        for (Field field : fields) {
-            try {
-                Object value = field.get(target);
-                if (typeToFind.isInstance(value)) {
-                    results.add(typeToFind.cast(value));
-                }
-            } catch (Throwable ignored) {
-                // Swallow exceptions during field access
+        List<T> results = new ArrayList<>(accessors.length);
+        for (FieldAccessor accessor : accessors) {
+            Object value = accessor.read(target);
+            if (typeToFind.isInstance(value)) {
+                results.add(typeToFind.cast(value));
             }
         }
         return results;
     }
 
     /**
-     * Retrieves the list of matching fields from the cache, or scans the class hierarchy to populate it.
+     * Passes every non-null field value of the specified type to the action, without collecting them first.
+     * Allocates nothing once the class has been scanned (as long as the action itself does not capture).
+     *
+     * @param target      The object instance to inspect.
+     * @param typeToFind  The class type of the field to look for.
+     * @param action      Receives each matching value, in declaration order (subclass fields first).
      */
-    private static List<Field> getCachedFields(Class<?> targetClass, Class<?> typeToFind) {
-        return FIELD_CACHE
-                .computeIfAbsent(targetClass, k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(typeToFind, k -> scanForFields(targetClass, typeToFind));
+    public static <T> void forEachFieldOfType(Object target, Class<T> typeToFind, Consumer<? super T> action) {
+        if (target == null) return;
+
+        for (FieldAccessor accessor : getAccessors(target.getClass(), typeToFind)) {
+            Object value = accessor.read(target);
+            if (typeToFind.isInstance(value)) {
+                action.accept(typeToFind.cast(value));
+            }
+        }
+    }
+
+    /**
+     * Returns true if the class (or a superclass) declares an accessible field of the given type.
+     */
+    public static boolean hasFieldOfType(Class<?> targetClass, Class<?> typeToFind) {
+        return getAccessors(targetClass, typeToFind).length > 0;
+    }
+
+    /**
+     * Retrieves the compiled getters for all fields of the given type, scanning the class hierarchy on first use.
+     */
+    static FieldAccessor[] getAccessors(Class<?> targetClass, Class<?> typeToFind) {
+        return ACCESSORS.get(targetClass).forType(typeToFind);
     }
 
     /**
-     * Performs the expensive reflection scan.
+     * Performs the expensive reflection scan and compiles a getter for every accessible match.
      */
-    private static List<Field> scanForFields(Class<?> targetClass, Class<?> typeToFind) {
-        List<Field> foundFields = new ArrayList<>();
+    private static FieldAccessor[] scanForFields(Class<?> targetClass, Class<?> typeToFind) {
+        EthologyEvents.FieldPlanBuild event = EthologyEvents.beginFieldPlanBuild();
+        List<FieldAccessor> foundFields = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
         Class<?> currentClass = targetClass;
 
         while (currentClass != null && currentClass != Object.class) {
@@ -94,9 +121,9 @@ public class EthologyReflection {
                 // Check if the field's type is compatible with the type we are looking for
                 if (typeToFind.isAssignableFrom(field.getType())) {
                     try {
-                        // Attempt to break encapsulation ONCE and cache the result
+                        // Attempt to break encapsulation ONCE; unreflectGetter honours the accessible flag.
                         field.setAccessible(true);
-                        foundFields.add(field);
+                        foundFields.add(new FieldAccessor(field, compileGetter(lookup, field)));
                     } catch (Throwable ignored) {
                         // Swallow all exceptions (IllegalAccessException, InaccessibleObjectException, etc.)
                         // Fields that cannot be accessed are simply excluded from the cache.
@@ -105,7 +132,26 @@ public class EthologyReflection {
             }
             currentClass = currentClass.getSuperclass();
         }
-        return foundFields;
+        EthologyEvents.endFieldPlanBuild(event, targetClass, typeToFind, foundFields.size());
+        return foundFields.isEmpty() ? NO_ACCESSORS : foundFields.toArray(FieldAccessor[]::new);
+    }
+
+    private static MethodHandle compileGetter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        MethodHandle getter = lookup.unreflectGetter(field);
+        if (Modifier.isStatic(field.getModifiers())) {
+            // Static getters take no receiver; accept (and ignore) one so every handle shares GETTER_TYPE.
+            return MethodHandles.dropArguments(getter.asType(MethodType.methodType(Object.class)), 0, Object.class);
+        }
+        return getter.asType(GETTER_TYPE);
+    }
+
+    private static ClassValue<ClassAccessors> createAccessorCache() {
+        return new ClassValue<>() {
+            @Override
+            protected ClassAccessors computeValue(Class<?> type) {
+                return new ClassAccessors(type);
+            }
+        };
     }
 
     /**
@@ -113,6 +159,48 @@ public class EthologyReflection {
      * Useful if classes are reloaded (rare) or to free memory on logout.
      */
     public static void clearCache() {
-        FIELD_CACHE.clear();
+        // ClassValue has no bulk clear; swapping the instance drops every table at once.
+        ACCESSORS = createAccessorCache();
+    }
+
+    /**
+     * A cached field together with its compiled getter.
+     * The Field is kept for callers that need declaration details such as generic types.
+     */
+    record FieldAccessor(Field field, MethodHandle getter) {
+
+        /**
+         * Reads the field through the compiled getter.
+         *
+         * @return The field value, or null if the read failed.
+         */
+        Object read(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable ignored) {
+                // Swallow exceptions during field access
+                return null;
+            }
+        }
+    }
+
+    /**
+     * The getter tables of a single class, one array per requested field type.
+     */
+    private static final class ClassAccessors {
+        private final Class<?> owner;
+        private final Map<Class<?>, FieldAccessor[]> byFieldType = new ConcurrentHashMap<>();
+
+        private ClassAccessors(Class<?> owner) {
+            this.owner = owner;
+        }
+
+        private FieldAccessor[] forType(Class<?> typeToFind) {
+            FieldAccessor[] accessors = byFieldType.get(typeToFind);
+            if (accessors == null) {
+                accessors = byFieldType.computeIfAbsent(typeToFind, k -> scanForFields(owner, k));
+            }
+            return accessors;
+        }
     }
-}
\ No newline at end of file
+}
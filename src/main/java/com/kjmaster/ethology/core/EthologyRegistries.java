@@ -1,30 +1,65 @@
 package com.kjmaster.ethology.core;
 
 import com.kjmaster.ethology.api.ActivityInspector;
+import com.kjmaster.ethology.api.AnalysisStage;
 import com.kjmaster.ethology.api.GoalInspector;
 import com.kjmaster.ethology.api.MemoryInspector;
 import com.kjmaster.ethology.api.SensorInspector;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.sensing.Sensor;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.schedule.Activity;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class EthologyRegistries {
-    private static final Map<Class<? extends Goal>, GoalInspector> GOAL_INSPECTORS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, GoalInspector> GOAL_INSPECTORS = new ConcurrentHashMap<>();
     private static final Map<SensorType<?>, SensorInspector> SENSOR_INSPECTORS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, SensorInspector> SENSOR_CLASS_INSPECTORS = new ConcurrentHashMap<>();
     private static final Map<MemoryModuleType<?>, MemoryInspector> MEMORY_INSPECTORS = new ConcurrentHashMap<>();
     private static final Map<Activity, ActivityInspector> ACTIVITY_INSPECTORS = new ConcurrentHashMap<>();
+    // Read on every analysis, written only during registration
+    private static final List<AnalysisStage> STAGES = new CopyOnWriteArrayList<>();
+
+    // Resolved dispatch: concrete class -> nearest registered inspector in its hierarchy.
+    // Swapped for a fresh ClassValue on every registration so stale resolutions are never served.
+    private static volatile ClassValue<Optional<GoalInspector>> GOAL_DISPATCH = createDispatch(GOAL_INSPECTORS);
+    private static volatile ClassValue<Optional<SensorInspector>> SENSOR_DISPATCH = createDispatch(SENSOR_CLASS_INSPECTORS);
 
     // --- Goals ---
     public static void registerGoal(Class<? extends Goal> type, GoalInspector inspector) {
         GOAL_INSPECTORS.put(type, inspector);
+        GOAL_DISPATCH = createDispatch(GOAL_INSPECTORS);
+        GoalTraversalPlan.invalidate();
+    }
+
+    /**
+     * Registers an inspector for every goal implementing the given interface.
+     */
+    public static void registerGoalInterface(Class<?> goalInterface, GoalInspector inspector) {
+        if (!goalInterface.isInterface()) {
+            throw new IllegalArgumentException(goalInterface.getName() + " is not an interface");
+        }
+        GOAL_INSPECTORS.put(goalInterface, inspector);
+        GOAL_DISPATCH = createDispatch(GOAL_INSPECTORS);
+        GoalTraversalPlan.invalidate();
     }
 
+    /**
+     * Finds the inspector for a goal class.
+     * Exact registrations win; otherwise the nearest registered superclass, then interface, is used.
+     */
     public static GoalInspector getGoalInspector(Class<? extends Goal> type) {
-        return GOAL_INSPECTORS.get(type);
+        return GOAL_DISPATCH.get(type).orElse(null);
     }
 
     // --- Sensors ---
@@ -32,11 +67,30 @@ public class EthologyRegistries {
         SENSOR_INSPECTORS.put(type, inspector);
     }
 
+    /**
+     * Registers an inspector for every sensor whose class is, or extends, the given class.
+     * Used for modded sensors that are registered under several SensorTypes.
+     */
+    public static void registerSensorClass(Class<? extends Sensor<?>> sensorClass, SensorInspector inspector) {
+        SENSOR_CLASS_INSPECTORS.put(sensorClass, inspector);
+        SENSOR_DISPATCH = createDispatch(SENSOR_CLASS_INSPECTORS);
+    }
+
     public static SensorInspector getSensorInspector(SensorType<?> type) {
         return SENSOR_INSPECTORS.get(type);
     }
 
+    /**
+     * Finds the inspector for a sensor, preferring a SensorType registration over a class-based one.
+     */
+    public static SensorInspector getSensorInspector(SensorType<?> type, Sensor<?> sensor) {
+        SensorInspector inspector = SENSOR_INSPECTORS.get(type);
+        if (inspector != null || sensor == null) return inspector;
+        return SENSOR_DISPATCH.get(sensor.getClass()).orElse(null);
+    }
+
     // --- Memories ---
+    // MemoryModuleTypes are flat registry objects with no hierarchy, so lookup stays a single map hit.
     public static void registerMemory(MemoryModuleType<?> type, MemoryInspector inspector) {
         MEMORY_INSPECTORS.put(type, inspector);
     }
@@ -53,4 +107,55 @@ public class EthologyRegistries {
     public static ActivityInspector getActivityInspector(Activity activity) {
         return ACTIVITY_INSPECTORS.get(activity);
     }
-}
\ No newline at end of file
+
+    // --- Stages ---
+    public static void registerStage(AnalysisStage stage) {
+        STAGES.add(stage);
+    }
+
+    public static List<AnalysisStage> getStages() {
+        return STAGES;
+    }
+
+    // --- Hierarchy Dispatch ---
+
+    private static <T> ClassValue<Optional<T>> createDispatch(Map<Class<?>, T> registered) {
+        return new ClassValue<>() {
+            @Override
+            protected Optional<T> computeValue(Class<?> type) {
+                return Optional.ofNullable(resolve(type, registered));
+            }
+        };
+    }
+
+    /**
+     * Walks the superclass chain first (nearest wins), then falls back to interfaces breadth-first.
+     */
+    private static <T> T resolve(Class<?> type, Map<Class<?>, T> registered) {
+        if (registered.isEmpty()) return null;
+
+        // 1. Superclasses
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            T value = registered.get(current);
+            if (value != null) return value;
+        }
+
+        // 2. Interfaces (closest declaration first)
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> seen = new HashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> iface : current.getInterfaces()) {
+                if (seen.add(iface)) queue.add(iface);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Class<?> iface = queue.poll();
+            T value = registered.get(iface);
+            if (value != null) return value;
+            for (Class<?> parent : iface.getInterfaces()) {
+                if (seen.add(parent)) queue.add(parent);
+            }
+        }
+        return null;
+    }
+}
@@ -1,23 +1,51 @@
 package com.kjmaster.ethology.core;
 
+import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.client.ClientArchetypeCache;
+import com.kjmaster.ethology.network.RequestScanBatchPayload;
 import com.kjmaster.ethology.network.RequestScanPayload;
+import com.kjmaster.ethology.network.ScanThrottledPayload;
+import com.kjmaster.ethology.network.WatchEntitiesPayload;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 import net.neoforged.neoforge.network.PacketDistributor;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 public class EthologyScanner {
 
+    // Throttling (client thread): requests the server refused are held until its retry-after has passed.
+    // Only the latest of each kind is kept, since the screen shows one mob and one viewport at a time.
+    private static long retryAt;
+    @Nullable
+    private static LivingEntity lastTarget;
+    @Nullable
+    private static LivingEntity deferredTarget;
+    @Nullable
+    private static EntityType<?> deferredSelection;
+    private static final Set<EntityType<?>> DEFERRED_PREFETCH = new LinkedHashSet<>();
+    private static List<UUID> lastWatch = List.of();
+    @Nullable
+    private static List<UUID> deferredWatch;
+
     // Archetype Scan
     public static void scanEntity(EntityType<?> type) {
-        // Client-Side Cache / Prediction
-        // Check if we already have data for this entity type in the client-side database.
-        // If present, we skip the network request to make the UI feel instant.
-        // The EthologyDatabase is cleared on logout, ensuring this cache is transient.
-        if (EthologyDatabase.get(type) != null) {
+        if (isKnownLocally(type)) {
+            return;
+        }
+
+        if (isThrottled()) {
+            deferredSelection = type;
+            deferredTarget = null;
             return;
         }
 
@@ -25,19 +53,163 @@ public class EthologyScanner {
         // We no longer perform local analysis on the client thread to avoid incomplete data
         // (Client-side entities often lack full AI goals and Brain memories).
         if (Minecraft.getInstance().getConnection() != null) {
-            PacketDistributor.sendToServer(new RequestScanPayload(BuiltInRegistries.ENTITY_TYPE.getKey(type), Optional.empty()));
+            // Conditional Request: if we hold a (stale) copy, the server only confirms it when nothing changed.
+            long knownHash = ClientArchetypeCache.getHash(type);
+            PacketDistributor.sendToServer(new RequestScanPayload(
+                    BuiltInRegistries.ENTITY_TYPE.getKey(type),
+                    Optional.empty(),
+                    knownHash != 0L ? Optional.of(knownHash) : Optional.empty()
+            ));
         }
     }
 
+    // Batched Archetype Scan
+    // Used for prefetching many types at once. Types already known locally are skipped,
+    // and the rest are sent as raw registry ids in as few packets as possible.
+    public static void scanEntities(Collection<EntityType<?>> types) {
+        if (Minecraft.getInstance().getConnection() == null) return;
+
+        if (isThrottled()) {
+            // A newer viewport replaces the deferred one
+            DEFERRED_PREFETCH.clear();
+            DEFERRED_PREFETCH.addAll(types);
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        List<Long> hashes = new ArrayList<>();
+        for (EntityType<?> type : types) {
+            if (isKnownLocally(type)) continue;
+            ids.add(BuiltInRegistries.ENTITY_TYPE.getId(type));
+            hashes.add(ClientArchetypeCache.getHash(type));
+            if (ids.size() == RequestScanBatchPayload.MAX_TYPES) {
+                PacketDistributor.sendToServer(new RequestScanBatchPayload(List.copyOf(ids), List.copyOf(hashes)));
+                ids.clear();
+                hashes.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            PacketDistributor.sendToServer(new RequestScanBatchPayload(List.copyOf(ids), List.copyOf(hashes)));
+        }
+    }
+
+    // Live Watch
+    // Replaces the set of mobs whose current state the server pushes to us. An empty list stops watching.
+    public static void watchEntities(List<UUID> entityIds) {
+        // Stopping is never throttled, so only new watches wait out a retry-after
+        if (isThrottled() && !entityIds.isEmpty()) {
+            deferredWatch = List.copyOf(entityIds);
+            return;
+        }
+
+        deferredWatch = null;
+        if (Minecraft.getInstance().getConnection() != null) {
+            lastWatch = List.copyOf(entityIds);
+            PacketDistributor.sendToServer(new WatchEntitiesPayload(lastWatch));
+        }
+    }
+
+    /**
+     * Returns true if the type can be shown without asking the server.
+     */
+    private static boolean isKnownLocally(EntityType<?> type) {
+        // Client-Side Cache / Prediction
+        // Check if we already have data for this entity type in the client-side database.
+        // If present, we skip the network request to make the UI feel instant.
+        // The EthologyDatabase is cleared on logout, ensuring this cache is transient.
+        if (EthologyDatabase.get(type) != null) {
+            return true;
+        }
+
+        // Persistent Client Cache
+        // Archetypes cached for this server on a previous visit are shown instantly.
+        // Fresh entries (matching server fingerprint) need no network at all; stale ones are refreshed by the caller.
+        MobScopedInfo stored = ClientArchetypeCache.get(type);
+        if (stored != null) {
+            EthologyDatabase.register(type, stored);
+            return !ClientArchetypeCache.isStale(type);
+        }
+        return false;
+    }
+
     // Targeted Scan
     public static void scanTargetedEntity(LivingEntity target) {
+        if (isThrottled()) {
+            deferredTarget = target;
+            deferredSelection = null;
+            return;
+        }
+
         // Enforce Server-Side Analysis: Request specific instance data from the server.
         // Even for targeted entities, we trust the server's data (capabilities + state) over the client's.
         if (Minecraft.getInstance().getConnection() != null) {
+            lastTarget = target;
             PacketDistributor.sendToServer(new RequestScanPayload(
                     BuiltInRegistries.ENTITY_TYPE.getKey(target.getType()),
-                    Optional.of(target.getUUID())
+                    Optional.of(target.getUUID()),
+                    Optional.empty()
             ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The server refused some requests: hold them (and anything new of the same kind) until the retry-after passes.
+     */
+    public static void onThrottled(ScanThrottledPayload payload) {
+        retryAt = Math.max(retryAt, System.currentTimeMillis() + payload.retryAfterMs());
+        switch (payload.kind()) {
+            case INSTANCE -> {
+                if (deferredSelection == null) deferredTarget = lastTarget;
+            }
+            case SELECTED -> {
+                if (deferredTarget == null && deferredSelection == null && !payload.typeIds().isEmpty()) {
+                    deferredSelection = BuiltInRegistries.ENTITY_TYPE.byId(payload.typeIds().getFirst());
+                }
+            }
+            case PREFETCH -> payload.typeIds().forEach(id -> DEFERRED_PREFETCH.add(BuiltInRegistries.ENTITY_TYPE.byId(id)));
+            case WATCH -> {
+                if (deferredWatch == null && !lastWatch.isEmpty()) deferredWatch = lastWatch;
+            }
+        }
+    }
+
+    /**
+     * Re-sends deferred requests once the retry-after has passed. Called every client tick.
+     */
+    public static void tick() {
+        if (isThrottled()) return;
+
+        if (deferredTarget != null) {
+            LivingEntity target = deferredTarget;
+            deferredTarget = null;
+            if (!target.isRemoved()) scanTargetedEntity(target);
+        }
+        if (deferredSelection != null) {
+            EntityType<?> type = deferredSelection;
+            deferredSelection = null;
+            scanEntity(type);
+        }
+        if (!DEFERRED_PREFETCH.isEmpty()) {
+            List<EntityType<?>> types = List.copyOf(DEFERRED_PREFETCH);
+            DEFERRED_PREFETCH.clear();
+            scanEntities(types);
+        }
+        if (deferredWatch != null) {
+            watchEntities(deferredWatch);
+        }
+    }
+
+    public static void clearThrottle() {
+        retryAt = 0;
+        lastTarget = null;
+        deferredTarget = null;
+        deferredSelection = null;
+        DEFERRED_PREFETCH.clear();
+        lastWatch = List.of();
+        deferredWatch = null;
+    }
+
+    private static boolean isThrottled() {
+        return System.currentTimeMillis() < retryAt;
+    }
+}
@@ -3,9 +3,7 @@ package com.kjmaster.ethology.core;
 import com.kjmaster.ethology.api.GoalInspector;
 import com.kjmaster.ethology.api.MobTrait;
 import com.kjmaster.ethology.api.TraitType;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
@@ -13,9 +11,10 @@ import net.minecraft.world.item.Items;
 import net.minecraft.world.item.crafting.Ingredient;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 public class GenericGoalInspector {
 
@@ -50,60 +49,69 @@ public class GenericGoalInspector {
     };
 
     private static List<String> scanForItems(Object goal) {
-        List<String> names = new ArrayList<>();
+        // Most goals hold none of these, so check the cached field tables before allocating anything.
+        Class<?> goalClass = goal.getClass();
+        if (!EthologyReflection.hasFieldOfType(goalClass, Ingredient.class)
+                && !EthologyReflection.hasFieldOfType(goalClass, ItemStack.class)
+                && !EthologyReflection.hasFieldOfType(goalClass, Item.class)) {
+            return List.of();
+        }
+        Set<String> names = new LinkedHashSet<>();
 
         // Scan for Ingredients (Common in Tempt/Breed goals)
-        List<Ingredient> ingredients = EthologyReflection.getAllFieldsOfType(goal, Ingredient.class);
-        for (Ingredient ingredient : ingredients) {
+        EthologyReflection.forEachFieldOfType(goal, Ingredient.class, ingredient -> {
             ItemStack[] stacks = ingredient.getItems();
             if (stacks.length > 0) {
                 names.add(stacks[0].getHoverName().getString());
             }
-        }
+        });
 
         // Scan for direct ItemStacks (Common in Pickup goals)
-        List<ItemStack> stacks = EthologyReflection.getAllFieldsOfType(goal, ItemStack.class);
-        for (ItemStack stack : stacks) {
+        EthologyReflection.forEachFieldOfType(goal, ItemStack.class, stack -> {
             if (!stack.isEmpty()) {
                 names.add(stack.getHoverName().getString());
             }
-        }
+        });
 
         // Scan for direct Items
-        List<Item> items = EthologyReflection.getAllFieldsOfType(goal, Item.class);
-        for (Item item : items) {
+        EthologyReflection.forEachFieldOfType(goal, Item.class, item -> {
             if (item != Items.AIR) {
                 names.add(item.getDescription().getString());
             }
-        }
+        });
 
-        return names.stream().distinct().limit(3).collect(Collectors.toList());
+        return firstThree(names);
     }
 
+    @SuppressWarnings("rawtypes")
     private static List<String> scanForEntities(Object goal) {
-        List<String> names = new ArrayList<>();
+        if (!EthologyReflection.hasFieldOfType(goal.getClass(), Class.class)) return List.of();
+        Set<String> names = new LinkedHashSet<>();
 
         // Scan for Class fields (e.g. Class<T> targetType)
-        List<Class> classes = EthologyReflection.getAllFieldsOfType(goal, Class.class);
-
-        for (Class<?> clazz : classes) {
+        EthologyReflection.forEachFieldOfType(goal, Class.class, (Class clazz) -> {
             // We only care if the class is a type of LivingEntity
             if (LivingEntity.class.isAssignableFrom(clazz)) {
-                String entityName = getEntityName(clazz);
-                names.add(entityName);
+                names.add(getEntityName(clazz));
             }
-        }
+        });
 
-        return names.stream().distinct().limit(3).collect(Collectors.toList());
+        return firstThree(names);
+    }
+
+    private static List<String> firstThree(Set<String> names) {
+        if (names.isEmpty()) return List.of();
+        List<String> result = new ArrayList<>(Math.min(3, names.size()));
+        for (String name : names) {
+            if (result.size() == 3) break;
+            result.add(name);
+        }
+        return result;
     }
 
     private static String getEntityName(Class<?> clazz) {
         // Attempt to find the EntityType associated with this class
-        Optional<EntityType<?>> type = BuiltInRegistries.ENTITY_TYPE.stream()
-                .filter(t -> clazz.isAssignableFrom(t.getBaseClass()))
-                .findFirst();
-
-        return type.map(t -> t.getDescription().getString())
+        return EntityTypeIndex.findMostSpecific(clazz).map(t -> t.getDescription().getString())
                 .orElseGet(() -> clazz.getSimpleName().replace("Entity", ""));
     }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.api.GoalInspector;
+import com.kjmaster.ethology.core.EthologyReflection.FieldAccessor;
+import net.minecraft.world.entity.ai.goal.Goal;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Describes how GoalParser should treat every instance of a specific Goal class.
+ * Plans are computed once per class, so repeat scans of the same modded goals skip the wrapper heuristics.
+ */
+final class GoalTraversalPlan {
+
+    enum Kind {
+        /** A registered inspector (exact or inherited) handles this goal. */
+        INSPECTED,
+        /** The goal holds child goals, directly or in collections, that should be analyzed instead. */
+        WRAPPER,
+        /** Nothing to unwrap; the goal goes straight to the GenericGoalInspector. */
+        LEAF
+    }
+
+    private static final FieldAccessor[] NONE = new FieldAccessor[0];
+
+    // Replaced wholesale when inspectors are registered, since a new registration can turn a WRAPPER/LEAF into INSPECTED.
+    private static volatile ClassValue<GoalTraversalPlan> PLANS = createPlanCache();
+
+    final Kind kind;
+    final GoalInspector inspector;
+    final FieldAccessor[] childGoals;
+    final FieldAccessor[] goalCollections;
+
+    private GoalTraversalPlan(Kind kind, GoalInspector inspector, FieldAccessor[] childGoals, FieldAccessor[] goalCollections) {
+        this.kind = kind;
+        this.inspector = inspector;
+        this.childGoals = childGoals;
+        this.goalCollections = goalCollections;
+    }
+
+    static GoalTraversalPlan of(Class<? extends Goal> goalClass) {
+        return PLANS.get(goalClass);
+    }
+
+    /**
+     * Drops every cached plan. Called whenever the goal inspector registry changes.
+     */
+    static void invalidate() {
+        PLANS = createPlanCache();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GoalTraversalPlan compute(Class<?> goalClass) {
+        // 1. Registry Lookup (Exact match first, then the nearest registered superclass or interface)
+        GoalInspector inspector = EthologyRegistries.getGoalInspector((Class<? extends Goal>) goalClass);
+        if (inspector != null) {
+            return new GoalTraversalPlan(Kind.INSPECTED, inspector, NONE, NONE);
+        }
+
+        // 2. Wrapper Candidates
+        // A. Fields typed as Goal (Custom Wrapper pattern)
+        FieldAccessor[] childGoals = EthologyReflection.getAccessors(goalClass, Goal.class);
+
+        // B. Collections that could hold Goals (Parallel/Composite pattern)
+        // Fields whose declared element type can never be a Goal (e.g. List<BlockPos>) are dropped here,
+        // so they are never read or peeked at during scans.
+        List<FieldAccessor> collections = new ArrayList<>();
+        for (FieldAccessor accessor : EthologyReflection.getAccessors(goalClass, Collection.class)) {
+            if (mayContainGoals(accessor)) {
+                collections.add(accessor);
+            }
+        }
+
+        if (childGoals.length == 0 && collections.isEmpty()) {
+            return new GoalTraversalPlan(Kind.LEAF, null, NONE, NONE);
+        }
+        return new GoalTraversalPlan(Kind.WRAPPER, null, childGoals, collections.toArray(FieldAccessor[]::new));
+    }
+
+    /**
+     * Uses the declared generic element type to rule out collections that cannot hold goals.
+     * Raw types, wildcards and type variables are kept, since only a runtime peek can tell.
+     */
+    private static boolean mayContainGoals(FieldAccessor accessor) {
+        Type genericType = accessor.field().getGenericType();
+        if (!(genericType instanceof ParameterizedType parameterized)) return true;
+
+        Type[] arguments = parameterized.getActualTypeArguments();
+        if (arguments.length != 1) return true;
+
+        Type element = arguments[0];
+        if (element instanceof WildcardType wildcard) {
+            Type[] upper = wildcard.getUpperBounds();
+            element = upper.length > 0 ? upper[0] : Object.class;
+        }
+        if (element instanceof ParameterizedType elementParameterized) {
+            element = elementParameterized.getRawType();
+        }
+        if (element instanceof Class<?> elementClass) {
+            // Either side may be the wider type: List<Object> can hold goals, List<MyGoal> certainly does.
+            return elementClass.isAssignableFrom(Goal.class) || Goal.class.isAssignableFrom(elementClass)
+                    || elementClass.isInterface();
+        }
+        return true;
+    }
+
+    private static ClassValue<GoalTraversalPlan> createPlanCache() {
+        return new ClassValue<>() {
+            @Override
+            protected GoalTraversalPlan computeValue(Class<?> type) {
+                return compute(type);
+            }
+        };
+    }
+}
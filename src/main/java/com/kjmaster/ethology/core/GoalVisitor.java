@@ -0,0 +1,243 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.api.AnalysisContext;
+import com.kjmaster.ethology.api.GoalInspector;
+import com.kjmaster.ethology.api.MobTrait;
+import net.minecraft.world.entity.ai.goal.Goal;
+import net.minecraft.world.entity.ai.goal.WrappedGoal;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Reusable, per-thread goal traversal. Recursively unwraps goals (vanilla wrappers, modded wrappers found by reflection,
+ * parallel collections), hands each leaf to its inspector and forwards the resulting traits to the current sink.
+ * <p>
+ * Capabilities and current state are collected in the same walk: each goal is inspected once, and its trait goes to
+ * the capabilities and/or (if reached from a running goal) the current states, whichever has not seen the goal yet.
+ * <p>
+ * The visitor is its own trait sink and keeps its visited sets between traversals, so the walk itself allocates nothing
+ * for goals with registered inspectors; what remains is whatever those inspectors return (most build a new trait per
+ * call, memoized ones return a shared one). Unknown goals (reflection, the generic inspector) and iterating non-list
+ * collections allocate as well. Goals are tracked by identity, since mods may override {@code equals}.
+ * <p>
+ * Use with try-with-resources: {@code try (GoalVisitor visitor = GoalVisitor.open(sink)) { visitor.visit(goal); }}
+ */
+public final class GoalVisitor implements Consumer<MobTrait>, AutoCloseable {
+
+    private static final ThreadLocal<GoalVisitor> CURRENT = ThreadLocal.withInitial(GoalVisitor::new);
+
+    private final IdentitySet capabilitiesVisited = new IdentitySet();
+    private final IdentitySet statesVisited = new IdentitySet();
+
+    // Sink: either an analysis (capabilities and/or current state) or an arbitrary consumer
+    private AnalysisContext context;
+    private Consumer<MobTrait> sink;
+    private boolean collectCapabilities;
+    private boolean collectState;
+
+    // Where the trait of the goal being inspected goes
+    private boolean toCapabilities;
+    private boolean toState;
+
+    private boolean open;
+    // Spare visitor for nested traversals on this thread, created on first need and then reused
+    private GoalVisitor next;
+
+    private GoalVisitor() {
+    }
+
+    /**
+     * Opens a visitor on this thread that adds traits to the analysis, as capabilities and/or current states
+     * depending on what it collects.
+     */
+    public static GoalVisitor open(AnalysisContext context) {
+        GoalVisitor visitor = acquire();
+        visitor.context = context;
+        visitor.collectCapabilities = context.collectsCapabilities();
+        visitor.collectState = context.collectsCurrentState();
+        return visitor;
+    }
+
+    /**
+     * Opens a visitor on this thread that passes every trait to an arbitrary consumer.
+     */
+    public static GoalVisitor open(Consumer<MobTrait> sink) {
+        GoalVisitor visitor = acquire();
+        visitor.sink = sink;
+        visitor.collectCapabilities = true;
+        return visitor;
+    }
+
+    private static GoalVisitor acquire() {
+        // An inspector or stage that starts a traversal of its own gets the next visitor in the chain
+        GoalVisitor visitor = CURRENT.get();
+        while (visitor.open) {
+            if (visitor.next == null) visitor.next = new GoalVisitor();
+            visitor = visitor.next;
+        }
+        visitor.open = true;
+        return visitor;
+    }
+
+    @Override
+    public void close() {
+        capabilitiesVisited.clear();
+        statesVisited.clear();
+        context = null;
+        sink = null;
+        collectCapabilities = false;
+        collectState = false;
+        open = false;
+    }
+
+    @Override
+    public void accept(MobTrait trait) {
+        if (sink != null) {
+            sink.accept(trait);
+            return;
+        }
+        if (toCapabilities) context.addCapability(trait);
+        if (toState) context.addCurrentState(trait);
+    }
+
+    /**
+     * Analyzes a goal for capabilities.
+     */
+    public void visit(Goal goal) {
+        visit(goal, false);
+    }
+
+    /**
+     * Recursively analyzes a Goal to find its true underlying logic.
+     * Handles Vanilla wrappers, custom Mod wrappers (heuristically), and Parallel goals.
+     * A running goal also contributes its traits to the current state, if that is being collected.
+     * Goals already seen since the visitor was opened are skipped, which also breaks cycles.
+     */
+    public void visit(Goal goal, boolean running) {
+        if (goal == null) return;
+        boolean capability = collectCapabilities && capabilitiesVisited.add(goal);
+        boolean state = running && collectState && statesVisited.add(goal);
+        if (!capability && !state) return; // Prevent cycles
+
+        // 1. Vanilla WrappedGoal (Explicit Unwrap)
+        if (goal instanceof WrappedGoal wrapped) {
+            visit(wrapped.getGoal(), running);
+            return; // WrappedGoal is just a container, so we don't inspect the wrapper itself
+        }
+
+        // 2. Traversal Plan (Cached per Goal class)
+        // The plan records whether this class has a registered inspector (exact or inherited),
+        // is a wrapper with known child-goal fields, or is a plain leaf.
+        GoalTraversalPlan plan = GoalTraversalPlan.of(goal.getClass());
+
+        // If the goal is known/registered, we inspect it and STOP recursing.
+        // We assume known goals handle their own logic and we don't want to peek inside their private fields.
+        if (plan.kind == GoalTraversalPlan.Kind.INSPECTED) {
+            inspect(plan.inspector, goal, capability, state);
+            return;
+        }
+
+        // 3. Wrapper Traversal (For Unknown/Modded Goals)
+        boolean isWrapper = false;
+
+        if (plan.kind == GoalTraversalPlan.Kind.WRAPPER) {
+            // A. Single child Goals (Custom Wrapper pattern)
+            for (EthologyReflection.FieldAccessor accessor : plan.childGoals) {
+                if (accessor.read(goal) instanceof Goal child) {
+                    isWrapper = true;
+                    visit(child, running);
+                }
+            }
+
+            // B. Collections of Goals (Parallel/Composite pattern)
+            for (EthologyReflection.FieldAccessor accessor : plan.goalCollections) {
+                if (accessor.read(goal) instanceof Collection<?> collection && visitCollection(collection, running)) {
+                    isWrapper = true;
+                }
+            }
+        }
+
+        // 4. Generic Fallback
+        // Only run the generic inspector if we didn't identify this as a wrapper.
+        // If it WAS a wrapper, we assume the "meat" of the logic was in the children we just recursed on.
+        if (!isWrapper) {
+            inspect(GenericGoalInspector.INSTANCE, goal, capability, state);
+        }
+    }
+
+    private void inspect(GoalInspector inspector, Goal goal, boolean capability, boolean state) {
+        EthologyEvents.InspectorCall event = EthologyEvents.beginInspectorCall();
+        toCapabilities = capability;
+        toState = state;
+        inspector.inspect(goal).ifPresent(this);
+        EthologyEvents.endInspectorCall(event, "goal", goal, inspector);
+    }
+
+    /**
+     * Visits the goals in a collection if it holds goals (judged by its first element). Returns true if it did.
+     */
+    private boolean visitCollection(Collection<?> collection, boolean running) {
+        if (collection.isEmpty()) return false;
+
+        // Lists are walked by index, so no iterator is allocated
+        if (collection instanceof List<?> list && collection instanceof RandomAccess) {
+            if (!(list.get(0) instanceof Goal)) return false;
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i) instanceof Goal child) visit(child, running);
+            }
+            return true;
+        }
+
+        // Peek at the first element to see if it's a collection of Goals
+        if (!(collection.iterator().next() instanceof Goal)) return false;
+        for (Object item : collection) {
+            if (item instanceof Goal child) visit(child, running);
+        }
+        return true;
+    }
+
+    /**
+     * Open-addressing set compared by identity. Clearing keeps the table, so a warmed-up visitor never reallocates it.
+     */
+    private static final class IdentitySet {
+        private Object[] table = new Object[64];
+        private int size;
+
+        boolean add(Object value) {
+            if ((size + 1) * 2 > table.length) grow();
+            int mask = table.length - 1;
+            int index = mix(System.identityHashCode(value)) & mask;
+            while (table[index] != null) {
+                if (table[index] == value) return false;
+                index = (index + 1) & mask;
+            }
+            table[index] = value;
+            size++;
+            return true;
+        }
+
+        void clear() {
+            if (size == 0) return;
+            Arrays.fill(table, null);
+            size = 0;
+        }
+
+        private void grow() {
+            Object[] old = table;
+            table = new Object[old.length * 2];
+            size = 0;
+            for (Object value : old) {
+                if (value != null) add(value);
+            }
+        }
+
+        private static int mix(int hash) {
+            // identityHashCode is poorly distributed in the low bits on some JVMs
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.kjmaster.ethology.core;
+
+import com.kjmaster.ethology.Config;
+import com.kjmaster.ethology.Ethology;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs all main-thread analysis work (instantiating archetypes, snapshotting targeted mobs) under a per-tick time budget.
+ * <p>
+ * Tasks are drained at the start of every server tick, highest priority first, until the budget is spent;
+ * whatever is left carries over to the next tick. At least one task runs per tick, so progress never stalls.
+ * A task is owned by the players who asked for it and is cancelled once none of them want it any more
+ * (they disconnected or moved on); tasks submitted or joined without an owner (the warm-up) are only dropped on shutdown.
+ * Server thread only.
+ */
+@EventBusSubscriber(modid = Ethology.MODID)
+public class ScanScheduler {
+
+    public enum Priority {
+        /** The mob under the player's crosshair. */
+        INSTANCE,
+        /** An archetype the player selected in the list. */
+        SELECTED,
+        /** Viewport prefetches and the warm-up. */
+        PREFETCH
+    }
+
+    private static final PriorityQueue<Task<?>> QUEUE = new PriorityQueue<>(
+            Comparator.comparing((Task<?> task) -> task.priority).thenComparingLong(task -> task.sequence));
+
+    private static long nextSequence;
+
+    // Stats (reported by /ethology scheduler)
+    private static long executed;
+    private static long cancelled;
+    private static long failed;
+    private static long ticks;
+    private static long ticksCarriedOver;
+    private static long ticksBlocked;
+    private static long totalUsedNanos;
+    private static long lastUsedNanos;
+    // Time used during the current tick, so work outside the scheduler (watch sampling) can share the budget
+    private static long tickUsedNanos;
+    private static long maxUsedNanos;
+    private static int peakDepth;
+
+    /**
+     * A queued piece of main-thread work. Its future completes with the work's result,
+     * or with null if the work failed or the task was cancelled before it ran.
+     */
+    public static final class Task<T> {
+        private final Supplier<CompletableFuture<T>> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Map<UUID, Priority> owners = new HashMap<>();
+        private final long sequence = nextSequence++;
+        // Set while the server itself (the warm-up) wants the task, which keeps it queued when every player lets go
+        @Nullable
+        private Priority pinned;
+        private Priority priority;
+        private boolean done;
+
+        private Task(Supplier<CompletableFuture<T>> work, Priority priority, @Nullable UUID owner) {
+            this.work = work;
+            this.priority = priority;
+            if (owner != null) {
+                owners.put(owner, priority);
+                this.pinned = null;
+            } else {
+                this.pinned = priority;
+            }
+        }
+
+        public CompletableFuture<T> future() {
+            return future;
+        }
+
+        /**
+         * Adds another interested player (or, with a null owner, pins the task). Raises the priority if needed.
+         * Does nothing once the task has run.
+         */
+        public void join(Priority priority, @Nullable UUID owner) {
+            if (done) return;
+            if (owner != null) {
+                owners.merge(owner, priority, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            } else if (pinned == null || priority.compareTo(pinned) < 0) {
+                pinned = priority;
+            }
+            if (priority.compareTo(this.priority) < 0) {
+                reprioritize(priority);
+            }
+        }
+
+        private boolean release(UUID owner, @Nullable Priority priority) {
+            if (done || (priority != null && owners.get(owner) != priority)) return false;
+            if (owners.remove(owner) == null) return false;
+
+            if (owners.isEmpty() && pinned == null) {
+                return true;
+            }
+            // The remaining owners (or the pin) may want it less urgently
+            Priority highest = pinned;
+            for (Priority p : owners.values()) {
+                if (highest == null || p.compareTo(highest) < 0) highest = p;
+            }
+            if (highest != this.priority) {
+                reprioritize(highest);
+            }
+            return false;
+        }
+
+        private void reprioritize(Priority priority) {
+            QUEUE.remove(this);
+            this.priority = priority;
+            QUEUE.add(this);
+        }
+
+        private void run() {
+            done = true;
+            try {
+                work.get().whenComplete((result, ex) -> future.complete(ex == null ? result : null));
+            } catch (Exception e) {
+                failed++;
+                Ethology.LOGGER.warn("Scheduled analysis task failed", e);
+                future.complete(null);
+            }
+        }
+
+        private void cancel() {
+            done = true;
+            cancelled++;
+            future.complete(null);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Pre event) {
+        tick();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        clear();
+    }
+
+    /**
+     * Queues main-thread work. The supplier runs on the server thread within the tick budget and may hand off
+     * to other threads by returning an incomplete future. A null owner means nobody can cancel the task.
+     */
+    public static <T> Task<T> submit(Priority priority, @Nullable UUID owner, Supplier<CompletableFuture<T>> work) {
+        Task<T> task = new Task<>(work, priority, owner);
+        QUEUE.add(task);
+        peakDepth = Math.max(peakDepth, QUEUE.size());
+        return task;
+    }
+
+    /**
+     * The player moved on: drops their interest in queued tasks they requested at the given priority.
+     */
+    public static void cancel(UUID owner, Priority priority) {
+        release(owner, priority);
+    }
+
+    /**
+     * The player disconnected: drops their interest in every queued task.
+     */
+    public static void cancelAll(UUID owner) {
+        release(owner, null);
+    }
+
+    private static void release(UUID owner, @Nullable Priority priority) {
+        // Copied, since releasing can reorder the queue
+        for (Task<?> task : new ArrayList<>(QUEUE)) {
+            if (task.release(owner, priority)) {
+                QUEUE.remove(task);
+                task.cancel();
+            }
+        }
+    }
+
+    /**
+     * Runs queued tasks until the per-tick budget is spent, or the analysis executor has no room for their results.
+     */
+    public static void tick() {
+        tickUsedNanos = 0;
+        if (QUEUE.isEmpty()) return;
+
+        // Backpressure: running a task now would only have its hand-off rejected, so it waits (and stays cancellable).
+        if (AnalysisExecutor.isSaturated()) {
+            ticksBlocked++;
+            return;
+        }
+
+        long budget = TimeUnit.MILLISECONDS.toNanos(Config.SCAN_TICK_BUDGET_MS.get());
+        long tickStart = System.nanoTime();
+
+        // Always make progress on at least one task per tick, then keep going until the budget is spent.
+        do {
+            Task<?> task = QUEUE.poll();
+            task.run();
+            executed++;
+        } while (!QUEUE.isEmpty() && !AnalysisExecutor.isSaturated() && System.nanoTime() - tickStart < budget);
+
+        long used = System.nanoTime() - tickStart;
+        tickUsedNanos = used;
+        ticks++;
+        totalUsedNanos += used;
+        lastUsedNanos = used;
+        maxUsedNanos = Math.max(maxUsedNanos, used);
+        if (!QUEUE.isEmpty()) ticksCarriedOver++;
+    }
+
+    /**
+     * Cancels everything queued. Called when the server stops.
+     */
+    public static void clear() {
+        List<Task<?>> tasks = new ArrayList<>(QUEUE);
+        QUEUE.clear();
+        tasks.forEach(Task::cancel);
+    }
+
+    public static int getQueueDepth() {
+        return QUEUE.size();
+    }
+
+    /**
+     * Total time spent running tasks since startup; the difference between two ticks is that tick's share.
+     */
+    public static long getTotalUsedNanos() {
+        return totalUsedNanos;
+    }
+
+    /**
+     * What is left of this tick's budget after the scheduler's own tasks; negative if they overran it.
+     */
+    public static long getRemainingBudgetNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(Config.SCAN_TICK_BUDGET_MS.get()) - tickUsedNanos;
+    }
+
+    /**
+     * Human-readable queue depth and budget use, shown to admins by the /ethology scheduler command.
+     */
+    public static String getStats() {
+        Map<Priority, Integer> depth = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) depth.put(priority, 0);
+        for (Task<?> task : QUEUE) depth.merge(task.priority, 1, Integer::sum);
+
+        double budgetMs = Config.SCAN_TICK_BUDGET_MS.get();
+        double averageMs = ticks == 0 ? 0 : totalUsedNanos / 1.0e6 / ticks;
+        return String.format("queued %d %s (peak %d), %d run, %d cancelled, %d failed, "
+                        + "budget %.0fms: last %.2fms, avg %.2fms (%.0f%%), max %.2fms, carried over in %d/%d ticks, %d ticks blocked by a full analysis queue",
+                QUEUE.size(), depth, peakDepth, executed, cancelled, failed,
+                budgetMs, lastUsedNanos / 1.0e6, averageMs, averageMs / budgetMs * 100, maxUsedNanos / 1.0e6,
+                ticksCarriedOver, ticks, ticksBlocked);
+    }
+}
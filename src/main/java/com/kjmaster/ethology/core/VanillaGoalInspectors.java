@@ -1,16 +1,16 @@
 package com.kjmaster.ethology.core;
 
+import com.google.common.base.Suppliers;
 import com.kjmaster.ethology.api.GoalInspector;
 import com.kjmaster.ethology.api.MobTrait;
 import com.kjmaster.ethology.api.TraitType;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.ai.goal.AvoidEntityGoal;
 import net.minecraft.world.entity.ai.goal.BreedGoal;
 import net.minecraft.world.entity.ai.goal.TemptGoal;
 import net.minecraft.world.entity.ai.goal.target.NearestAttackableTargetGoal;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.item.crafting.Ingredient;
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class VanillaGoalInspectors {
 
@@ -67,89 +68,29 @@ public class VanillaGoalInspectors {
 
     // --- MOVEMENT ---
 
-    public static final GoalInspector RANDOM_STROLL_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_stroll"),
-            new ItemStack(Items.LEATHER_BOOTS),
-            "ethology.trait.goal.wanders",
-            List.of(),
-            TraitType.GOAL
-    ));
-
-    public static final GoalInspector WATER_AVOIDING_STROLL_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_stroll_land"),
-            new ItemStack(Items.LEATHER_BOOTS),
-            "ethology.trait.goal.wanders_land",
-            List.of(),
-            TraitType.GOAL
-    ));
-
-    public static final GoalInspector FLOAT_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_float"),
-            new ItemStack(Items.OAK_BOAT),
-            "ethology.trait.goal.floats",
-            List.of(),
-            TraitType.GOAL
-    ));
+    public static final GoalInspector RANDOM_STROLL_INSPECTOR = constant("ethology:vanilla_stroll", Items.LEATHER_BOOTS, "ethology.trait.goal.wanders");
+
+    public static final GoalInspector WATER_AVOIDING_STROLL_INSPECTOR = constant("ethology:vanilla_stroll_land", Items.LEATHER_BOOTS, "ethology.trait.goal.wanders_land");
+
+    public static final GoalInspector FLOAT_INSPECTOR = constant("ethology:vanilla_float", Items.OAK_BOAT, "ethology.trait.goal.floats");
 
     // --- ACTION ---
 
-    public static final GoalInspector EAT_BLOCK_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_eat_block"),
-            new ItemStack(Items.GRASS_BLOCK),
-            "ethology.trait.goal.eats_blocks",
-            List.of(),
-            TraitType.GOAL
-    ));
-
-    public static final GoalInspector OPEN_DOOR_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_open_door"),
-            new ItemStack(Items.OAK_DOOR),
-            "ethology.trait.goal.opens_doors",
-            List.of(),
-            TraitType.GOAL
-    ));
-
-    public static final GoalInspector BREAK_DOOR_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_break_door"),
-            new ItemStack(Items.IRON_AXE),
-            "ethology.trait.goal.breaks_doors",
-            List.of(),
-            TraitType.GOAL
-    ));
-
-    public static final GoalInspector SIT_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_sit"),
-            new ItemStack(Items.OAK_STAIRS),
-            "ethology.trait.goal.sits",
-            List.of(),
-            TraitType.GOAL
-    ));
+    public static final GoalInspector EAT_BLOCK_INSPECTOR = constant("ethology:vanilla_eat_block", Items.GRASS_BLOCK, "ethology.trait.goal.eats_blocks");
+
+    public static final GoalInspector OPEN_DOOR_INSPECTOR = constant("ethology:vanilla_open_door", Items.OAK_DOOR, "ethology.trait.goal.opens_doors");
+
+    public static final GoalInspector BREAK_DOOR_INSPECTOR = constant("ethology:vanilla_break_door", Items.IRON_AXE, "ethology.trait.goal.breaks_doors");
+
+    public static final GoalInspector SIT_INSPECTOR = constant("ethology:vanilla_sit", Items.OAK_STAIRS, "ethology.trait.goal.sits");
 
     // --- COMBAT ---
 
-    public static final GoalInspector MELEE_ATTACK_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_melee"),
-            new ItemStack(Items.IRON_SWORD),
-            "ethology.trait.goal.melee_attack",
-            List.of(),
-            TraitType.GOAL
-    ));
-
-    public static final GoalInspector RANGED_BOW_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_bow"),
-            new ItemStack(Items.BOW),
-            "ethology.trait.goal.ranged_attack",
-            List.of(),
-            TraitType.GOAL
-    ));
-
-    public static final GoalInspector SWELL_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_swell"),
-            new ItemStack(Items.TNT),
-            "ethology.trait.goal.explodes",
-            List.of(),
-            TraitType.GOAL
-    ));
+    public static final GoalInspector MELEE_ATTACK_INSPECTOR = constant("ethology:vanilla_melee", Items.IRON_SWORD, "ethology.trait.goal.melee_attack");
+
+    public static final GoalInspector RANGED_BOW_INSPECTOR = constant("ethology:vanilla_bow", Items.BOW, "ethology.trait.goal.ranged_attack");
+
+    public static final GoalInspector SWELL_INSPECTOR = constant("ethology:vanilla_swell", Items.TNT, "ethology.trait.goal.explodes");
 
     // --- TARGETING ---
 
@@ -170,24 +111,22 @@ public class VanillaGoalInspectors {
         ));
     };
 
-    public static final GoalInspector HURT_BY_TARGET_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_hurt_by"),
-            new ItemStack(Items.SHIELD),
-            "ethology.trait.goal.retaliates",
-            List.of(),
-            TraitType.GOAL
-    ));
-
-    public static final GoalInspector DEFEND_VILLAGE_INSPECTOR = goal -> Optional.of(new MobTrait(
-            ResourceLocation.parse("ethology:vanilla_defend_village"),
-            new ItemStack(Items.BELL),
-            "ethology.trait.goal.defends_village",
-            List.of(),
-            TraitType.GOAL
-    ));
+    public static final GoalInspector HURT_BY_TARGET_INSPECTOR = constant("ethology:vanilla_hurt_by", Items.SHIELD, "ethology.trait.goal.retaliates");
+
+    public static final GoalInspector DEFEND_VILLAGE_INSPECTOR = constant("ethology:vanilla_defend_village", Items.BELL, "ethology.trait.goal.defends_village");
 
     // --- UTILS ---
 
+    /**
+     * An inspector whose trait never depends on the goal. The trait is built and interned once, on first use,
+     * so inspecting goals that only hit constant inspectors allocates nothing.
+     */
+    private static GoalInspector constant(String id, Item icon, String translationKey) {
+        Supplier<Optional<MobTrait>> trait = Suppliers.memoize(() -> Optional.of(MobTrait.intern(new MobTrait(
+                ResourceLocation.parse(id), new ItemStack(icon), translationKey, List.of(), TraitType.GOAL))));
+        return goal -> trait.get();
+    }
+
     private static @NotNull List<String> getArgs(Predicate<ItemStack> itemsPredicate) {
         List<String> args = new ArrayList<>();
         if (itemsPredicate instanceof Ingredient ingredient) {
@@ -206,10 +145,7 @@ public class VanillaGoalInspectors {
     private static String getEntityNameFromClass(Class<?> clazz) {
         if (clazz == null) return "Unknown";
         if (Player.class.isAssignableFrom(clazz)) return "Players";
-        Optional<EntityType<?>> type = BuiltInRegistries.ENTITY_TYPE.stream()
-                .filter(t -> clazz.isAssignableFrom(t.getBaseClass()))
-                .findFirst();
-        return type.map(entityType -> entityType.getDescription().getString())
+        return EntityTypeIndex.findMostSpecific(clazz).map(entityType -> entityType.getDescription().getString())
                 .orElseGet(() -> clazz.getSimpleName().replaceAll("Entity$", ""));
     }
 }
\ No newline at end of file
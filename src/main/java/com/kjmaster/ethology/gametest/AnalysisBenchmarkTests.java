@@ -0,0 +1,179 @@
+package com.kjmaster.ethology.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.EthologyTags;
+import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.core.AiSnapshot;
+import com.kjmaster.ethology.core.EntityAnalyzer;
+import com.kjmaster.ethology.core.EthologyReflection;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Registry-wide analysis benchmark. Runs every eligible entity type through {@link EntityAnalyzer}, first as an
+ * archetype (from cold reflection caches, the way a fresh server fills its archetype cache) and then as a live
+ * instance added to the test level, and writes a JSON report to {@code <server dir>/ethology/benchmarks/}.
+ * <p>
+ * Run with the {@code gameTestServer} Gradle run, ideally with the mod set under study installed. Types that fail
+ * to analyze are reported with their error rather than failing the test, since finding them is the point.
+ */
+@GameTestHolder(Ethology.MODID)
+@PrefixGameTestTemplate(false)
+public class AnalysisBenchmarkTests {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Nullable
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported() ? threads : null;
+
+    private record Result(String type, String mode, long nanos, long allocatedBytes, int capabilities, int states,
+                          @Nullable String error) {
+    }
+
+    @GameTest(template = "empty", timeoutTicks = 200)
+    public static void registryAnalysis(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        Vec3 spawn = helper.absoluteVec(new Vec3(1.5, 1, 1.5));
+
+        // 1. Eligible types (the same filter EntityAnalyzer applies)
+        List<EntityType<?>> types = new ArrayList<>();
+        for (EntityType<?> type : BuiltInRegistries.ENTITY_TYPE) {
+            if (!type.is(EthologyTags.NO_ANALYSIS) && type.canSummon()) types.add(type);
+        }
+
+        // 2. Archetypes, cold: the first pass pays for every reflective field scan, as a fresh server would.
+        // Same sequence as the server's archetype scan (create, tick, snapshot, then a full analysis), run inline so
+        // time and allocation are measured on one thread.
+        EthologyReflection.clearCache();
+        List<Result> results = new ArrayList<>();
+        for (EntityType<?> type : types) {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            try {
+                AiSnapshot snapshot = EntityAnalyzer.snapshotArchetype(type, level);
+                if (snapshot == null) {
+                    results.add(result(type, "archetype", start, allocated, null, "not a living entity"));
+                } else {
+                    results.add(result(type, "archetype", start, allocated, EntityAnalyzer.analyze(snapshot).withUuid(null), null));
+                }
+            } catch (Exception e) {
+                results.add(result(type, "archetype", start, allocated, null, e.toString()));
+            }
+        }
+
+        // 3. Live instances, warm caches: the cost of a player targeting one mob of each type
+        for (EntityType<?> type : types) {
+            Entity entity = null;
+            try {
+                entity = type.create(level);
+                if (!(entity instanceof LivingEntity living)) continue;
+                living.moveTo(spawn.x, spawn.y, spawn.z, 0, 0);
+                level.addFreshEntity(living);
+
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+                try {
+                    results.add(result(type, "instance", start, allocated, EntityAnalyzer.analyze(living), null));
+                } catch (Exception e) {
+                    results.add(result(type, "instance", start, allocated, null, e.toString()));
+                }
+            } catch (Exception e) {
+                Ethology.LOGGER.warn("Could not spawn {} for instance analysis", BuiltInRegistries.ENTITY_TYPE.getKey(type), e);
+            } finally {
+                if (entity != null) entity.discard();
+            }
+        }
+
+        // 4. Report
+        try {
+            Path report = writeReport(level, types.size(), results);
+            Ethology.LOGGER.info("Analysis benchmark: {} types, report written to {}", types.size(), report);
+        } catch (IOException e) {
+            helper.fail("Could not write analysis benchmark report: " + e);
+            return;
+        }
+        results.stream().sorted(Comparator.comparingLong(Result::nanos).reversed()).limit(10).forEach(result ->
+                Ethology.LOGGER.info("  {} {}: {}ms, {} KiB", result.mode(), result.type(),
+                        String.format("%.3f", result.nanos() / 1.0e6), result.allocatedBytes() / 1024));
+        helper.succeed();
+    }
+
+    private static Result result(EntityType<?> type, String mode, long start, long allocatedStart,
+                                 @Nullable MobScopedInfo info, @Nullable String error) {
+        long nanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedStart;
+        return new Result(BuiltInRegistries.ENTITY_TYPE.getKey(type).toString(), mode, nanos, allocated,
+                info == null ? 0 : info.getCapabilities().size(), info == null ? 0 : info.getCurrentStates().size(), error);
+    }
+
+    private static Path writeReport(ServerLevel level, int typeCount, List<Result> results) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("generated", LocalDateTime.now().toString());
+        root.addProperty("entityTypes", typeCount);
+        root.addProperty("allocationTracking", THREADS != null);
+
+        JsonObject totals = new JsonObject();
+        for (String mode : List.of("archetype", "instance")) {
+            JsonObject total = new JsonObject();
+            total.addProperty("analyzed", results.stream().filter(r -> r.mode().equals(mode)).count());
+            total.addProperty("failed", results.stream().filter(r -> r.mode().equals(mode) && r.error() != null).count());
+            total.addProperty("nanos", results.stream().filter(r -> r.mode().equals(mode)).mapToLong(Result::nanos).sum());
+            total.addProperty("allocatedBytes", results.stream().filter(r -> r.mode().equals(mode)).mapToLong(Result::allocatedBytes).sum());
+            totals.add(mode, total);
+        }
+        root.add("totals", totals);
+
+        JsonArray entries = new JsonArray();
+        for (Result result : results) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("type", result.type());
+            entry.addProperty("mode", result.mode());
+            entry.addProperty("nanos", result.nanos());
+            entry.addProperty("allocatedBytes", result.allocatedBytes());
+            entry.addProperty("capabilities", result.capabilities());
+            entry.addProperty("states", result.states());
+            if (result.error() != null) entry.addProperty("error", result.error());
+            entries.add(entry);
+        }
+        root.add("results", entries);
+
+        Path directory = level.getServer().getServerDirectory().resolve(Ethology.MODID).resolve("benchmarks");
+        Files.createDirectories(directory);
+        Path file = directory.resolve("analysis-" + LocalDateTime.now().format(FILE_TIME) + ".json");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            GSON.toJson(root, writer);
+        }
+        return file;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+}
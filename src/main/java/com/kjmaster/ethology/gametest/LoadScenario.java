@@ -0,0 +1,93 @@
+package com.kjmaster.ethology.gametest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.GsonHelper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A scripted load-test run: how many simulated players, which mobs they can target, and a sequence of phases,
+ * each with its own request rate and traffic mix. Loaded from JSON so a production mix can be replayed:
+ * <pre>{@code
+ * {
+ *   "name": "evening-peak",
+ *   "players": 120,
+ *   "seed": 42,
+ *   "clearCache": true,
+ *   "instanceTypes": ["minecraft:villager", "minecraft:cow"],
+ *   "instanceMobs": 16,
+ *   "phases": [
+ *     {"ticks": 200, "requestsPerSecond": 1.0, "archetype": 0.7, "instance": 0.2, "cacheHit": 0.1},
+ *     {"ticks": 400, "requestsPerSecond": 4.0, "archetype": 0.3, "instance": 0.4, "cacheHit": 0.3}
+ *   ]
+ * }
+ * }</pre>
+ * Rates are per player; mix weights are normalized.
+ */
+public record LoadScenario(String name, int players, long seed, boolean clearCache, List<ResourceLocation> instanceTypes,
+                           int instanceMobs, List<Phase> phases) {
+
+    public static final LoadScenario DEFAULT = new LoadScenario("default", 120, 0L, true,
+            List.of(ResourceLocation.withDefaultNamespace("villager"), ResourceLocation.withDefaultNamespace("cow"),
+                    ResourceLocation.withDefaultNamespace("wolf"), ResourceLocation.withDefaultNamespace("piglin"),
+                    ResourceLocation.withDefaultNamespace("fox"), ResourceLocation.withDefaultNamespace("bee")),
+            16,
+            List.of(new Phase(200, 1.0, 0.7, 0.2, 0.1),
+                    new Phase(400, 4.0, 0.3, 0.4, 0.3),
+                    new Phase(200, 0.5, 0.2, 0.3, 0.5)));
+
+    public record Phase(int ticks, double requestsPerSecond, double archetype, double instance, double cacheHit) {
+    }
+
+    public int totalTicks() {
+        return phases.stream().mapToInt(Phase::ticks).sum();
+    }
+
+    public static LoadScenario load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path)) {
+            return parse(JsonParser.parseReader(reader).getAsJsonObject());
+        }
+    }
+
+    public static LoadScenario parse(JsonObject json) {
+        List<ResourceLocation> instanceTypes = new ArrayList<>();
+        if (json.has("instanceTypes")) {
+            for (JsonElement element : GsonHelper.getAsJsonArray(json, "instanceTypes")) {
+                instanceTypes.add(ResourceLocation.parse(element.getAsString()));
+            }
+        } else {
+            instanceTypes.addAll(DEFAULT.instanceTypes());
+        }
+
+        List<Phase> phases = new ArrayList<>();
+        JsonArray phaseArray = GsonHelper.getAsJsonArray(json, "phases", new JsonArray());
+        for (JsonElement element : phaseArray) {
+            JsonObject phase = element.getAsJsonObject();
+            phases.add(new Phase(
+                    GsonHelper.getAsInt(phase, "ticks"),
+                    GsonHelper.getAsDouble(phase, "requestsPerSecond"),
+                    GsonHelper.getAsDouble(phase, "archetype", 0),
+                    GsonHelper.getAsDouble(phase, "instance", 0),
+                    GsonHelper.getAsDouble(phase, "cacheHit", 0)));
+        }
+        if (phases.isEmpty()) phases.addAll(DEFAULT.phases());
+
+        return new LoadScenario(
+                GsonHelper.getAsString(json, "name", "scenario"),
+                GsonHelper.getAsInt(json, "players", DEFAULT.players()),
+                GsonHelper.getAsLong(json, "seed", 0L),
+                GsonHelper.getAsBoolean(json, "clearCache", true),
+                List.copyOf(instanceTypes),
+                GsonHelper.getAsInt(json, "instanceMobs", DEFAULT.instanceMobs()),
+                List.copyOf(phases));
+    }
+}
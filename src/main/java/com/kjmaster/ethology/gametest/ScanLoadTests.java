@@ -0,0 +1,310 @@
+package com.kjmaster.ethology.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.EthologyTags;
+import com.kjmaster.ethology.core.AnalysisExecutor;
+import com.kjmaster.ethology.core.ArchetypeCache;
+import com.kjmaster.ethology.core.EthologyMetrics;
+import com.kjmaster.ethology.core.ScanScheduler;
+import com.kjmaster.ethology.network.EthologyNetworkEvents;
+import com.kjmaster.ethology.network.EthologyPacketHandler;
+import com.kjmaster.ethology.network.RequestScanPayload;
+import com.kjmaster.ethology.network.ScanAdmission;
+import com.kjmaster.ethology.network.TraitDictionary;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.Mob;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Load test for the scan pipeline: simulated players hammer {@link EthologyPacketHandler#handleScanRequest}
+ * with a scripted mix of archetype, instance and cache-hit requests, on the real server thread, scheduler and executor.
+ * <p>
+ * The scenario comes from the JSON file named by the {@code ethology.loadtest.scenario} system property
+ * (see {@link LoadScenario}), or {@link LoadScenario#DEFAULT}. The report (end-to-end latency percentiles per kind,
+ * main-thread time per tick, executor queue depth, per-player state growth and throttle drops) is written to
+ * {@code <server dir>/ethology/loadtest/}. Main-thread time counts the request handlers and scheduler tasks;
+ * response callbacks run as server tasks between ticks and show up in the overall tick time instead.
+ */
+@GameTestHolder(Ethology.MODID)
+@PrefixGameTestTemplate(false)
+public class ScanLoadTests {
+
+    // Ticks given to in-flight requests after the last phase, before the report is written
+    private static final int DRAIN_TICKS = 100;
+    private static final int TIMEOUT_TICKS = 12000;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private enum Kind {
+        ARCHETYPE, INSTANCE, CACHE_HIT
+    }
+
+    @GameTest(template = "empty", timeoutTicks = TIMEOUT_TICKS)
+    public static void scanLoad(GameTestHelper helper) {
+        LoadScenario scenario;
+        try {
+            String path = System.getProperty("ethology.loadtest.scenario");
+            scenario = path == null ? LoadScenario.DEFAULT : LoadScenario.load(Path.of(path));
+        } catch (Exception e) {
+            helper.fail("Could not load load-test scenario: " + e);
+            return;
+        }
+        if (scenario.totalTicks() + DRAIN_TICKS >= TIMEOUT_TICKS) {
+            helper.fail("Scenario runs for " + scenario.totalTicks() + " ticks; at most " + (TIMEOUT_TICKS - DRAIN_TICKS - 1) + " fit in the test timeout");
+            return;
+        }
+        new Run(helper, scenario).start();
+    }
+
+    private static final class Run implements SimulatedPlayer.Listener {
+        private final GameTestHelper helper;
+        private final LoadScenario scenario;
+        private final Random random;
+        private final List<SimulatedPlayer> players = new ArrayList<>();
+        private final List<EntityType<?>> archetypes = new ArrayList<>();
+        private final List<UUID> instances = new ArrayList<>();
+
+        // Results
+        private final Map<Kind, EthologyMetrics.Histogram> latency = new EnumMap<>(Kind.class);
+        private final Map<String, Integer> throttled = new HashMap<>();
+        private final EthologyMetrics.Histogram mainThread = new EthologyMetrics.Histogram();
+        private final EthologyMetrics.Histogram tickTime = new EthologyMetrics.Histogram();
+        private final EthologyMetrics.Histogram executorQueue = new EthologyMetrics.Histogram();
+        private final Map<Kind, Integer> sent = new EnumMap<>(Kind.class);
+        private int superseded;
+        private int peakPendingScans;
+        private int peakAdmissionPlayers;
+        private int peakDictionaryPlayers;
+        private long heapBefore;
+
+        private int tick;
+        private long schedulerNanos;
+        private boolean finished;
+
+        Run(GameTestHelper helper, LoadScenario scenario) {
+            this.helper = helper;
+            this.scenario = scenario;
+            this.random = new Random(scenario.seed());
+            for (Kind kind : Kind.values()) {
+                latency.put(kind, new EthologyMetrics.Histogram());
+                sent.put(kind, 0);
+            }
+        }
+
+        void start() {
+            // 1. Setup: targets, mobs and players
+            if (scenario.clearCache()) EthologyPacketHandler.clearCache();
+            for (EntityType<?> type : BuiltInRegistries.ENTITY_TYPE) {
+                if (!type.is(EthologyTags.NO_ANALYSIS) && type.canSummon()) archetypes.add(type);
+            }
+            for (int i = 0; i < scenario.instanceMobs() && !scenario.instanceTypes().isEmpty(); i++) {
+                EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.get(scenario.instanceTypes().get(i % scenario.instanceTypes().size()));
+                Entity entity = helper.spawn(type, new BlockPos(1, 1, 1));
+                // Frozen in place, so they stay inside the test area and alive for the whole run
+                if (entity instanceof Mob mob) mob.setNoAi(true);
+                if (entity instanceof LivingEntity) instances.add(entity.getUUID());
+            }
+            for (int i = 0; i < scenario.players(); i++) {
+                players.add(new SimulatedPlayer(helper.getLevel(), i, this));
+            }
+
+            System.gc();
+            heapBefore = usedHeap();
+            schedulerNanos = ScanScheduler.getTotalUsedNanos();
+            helper.onEachTick(this::tick);
+        }
+
+        private void tick() {
+            if (finished) return;
+
+            // 2. Gauges for the previous tick
+            long schedulerTotal = ScanScheduler.getTotalUsedNanos();
+            long scheduled = schedulerTotal - schedulerNanos;
+            schedulerNanos = schedulerTotal;
+            tickTime.record(helper.getLevel().getServer().getAverageTickTimeNanos());
+            executorQueue.record(AnalysisExecutor.getQueued());
+            peakPendingScans = Math.max(peakPendingScans, EthologyPacketHandler.getPendingScanCount());
+            peakAdmissionPlayers = Math.max(peakAdmissionPlayers, ScanAdmission.getTrackedPlayers());
+            peakDictionaryPlayers = Math.max(peakDictionaryPlayers, TraitDictionary.getTrackedPlayers());
+
+            // 3. Traffic, while a phase is running
+            LoadScenario.Phase phase = phaseAt(tick);
+            long handlerNanos = 0;
+            if (phase != null) {
+                double chance = phase.requestsPerSecond() / 20.0;
+                for (SimulatedPlayer player : players) {
+                    if (random.nextDouble() >= chance) continue;
+                    Kind kind = pickKind(phase);
+                    RequestScanPayload payload = request(kind);
+                    if (payload == null) continue;
+                    if (player.begin(kind.name(), payload)) superseded++;
+                    sent.merge(kind, 1, Integer::sum);
+
+                    long start = System.nanoTime();
+                    EthologyPacketHandler.handleScanRequest(player.player, payload);
+                    handlerNanos += System.nanoTime() - start;
+                }
+            }
+            mainThread.record(handlerNanos + scheduled);
+
+            tick++;
+            if (tick >= scenario.totalTicks() + DRAIN_TICKS || (phase == null && players.stream().noneMatch(SimulatedPlayer::isPending))) {
+                finish();
+            }
+        }
+
+        private LoadScenario.Phase phaseAt(int tick) {
+            int end = 0;
+            for (LoadScenario.Phase phase : scenario.phases()) {
+                end += phase.ticks();
+                if (tick < end) return phase;
+            }
+            return null;
+        }
+
+        private Kind pickKind(LoadScenario.Phase phase) {
+            double total = phase.archetype() + phase.instance() + phase.cacheHit();
+            double roll = random.nextDouble() * total;
+            if (roll < phase.archetype()) return Kind.ARCHETYPE;
+            if (roll < phase.archetype() + phase.instance()) return Kind.INSTANCE;
+            return Kind.CACHE_HIT;
+        }
+
+        private RequestScanPayload request(Kind kind) {
+            switch (kind) {
+                case INSTANCE -> {
+                    if (instances.isEmpty()) return null;
+                    UUID target = instances.get(random.nextInt(instances.size()));
+                    Entity entity = helper.getLevel().getEntity(target);
+                    if (entity == null) return null;
+                    return new RequestScanPayload(BuiltInRegistries.ENTITY_TYPE.getKey(entity.getType()), Optional.of(target), Optional.empty());
+                }
+                case CACHE_HIT -> {
+                    // A client that already holds the current copy; falls through to a plain request until something is cached
+                    for (int attempt = 0; attempt < 8; attempt++) {
+                        EntityType<?> type = archetypes.get(random.nextInt(archetypes.size()));
+                        OptionalLong hash = ArchetypeCache.getContentHash(type);
+                        if (hash.isPresent()) {
+                            return new RequestScanPayload(BuiltInRegistries.ENTITY_TYPE.getKey(type), Optional.empty(), Optional.of(hash.getAsLong()));
+                        }
+                    }
+                    return request(Kind.ARCHETYPE);
+                }
+                default -> {
+                    ResourceLocation id = BuiltInRegistries.ENTITY_TYPE.getKey(archetypes.get(random.nextInt(archetypes.size())));
+                    return new RequestScanPayload(id, Optional.empty(), Optional.empty());
+                }
+            }
+        }
+
+        @Override
+        public void onAnswered(SimulatedPlayer player, String kind, long latencyNanos) {
+            latency.get(Kind.valueOf(kind)).record(latencyNanos);
+        }
+
+        @Override
+        public void onThrottled(SimulatedPlayer player, String kind) {
+            throttled.merge(kind, 1, Integer::sum);
+        }
+
+        private void finish() {
+            finished = true;
+            int unanswered = (int) players.stream().filter(SimulatedPlayer::isPending).count();
+            for (SimulatedPlayer player : players) {
+                EthologyNetworkEvents.removePlayer(player.player.getUUID());
+            }
+            System.gc();
+            long heapAfter = usedHeap();
+
+            JsonObject root = new JsonObject();
+            root.addProperty("scenario", scenario.name());
+            root.addProperty("generated", LocalDateTime.now().toString());
+            root.addProperty("players", scenario.players());
+            root.addProperty("ticks", tick);
+
+            JsonObject requests = new JsonObject();
+            for (Kind kind : Kind.values()) {
+                JsonObject entry = histogram(latency.get(kind), 1.0e6);
+                entry.addProperty("sent", sent.get(kind));
+                entry.addProperty("throttled", throttled.getOrDefault(kind.name(), 0));
+                requests.add(kind.name().toLowerCase(Locale.ROOT), entry);
+            }
+            requests.addProperty("superseded", superseded);
+            requests.addProperty("unanswered", unanswered);
+            root.add("latencyMs", requests);
+
+            root.add("mainThreadMsPerTick", histogram(mainThread, 1.0e6));
+            root.add("serverTickMs", histogram(tickTime, 1.0e6));
+            root.add("executorQueueDepth", histogram(executorQueue, 1.0));
+
+            JsonObject state = new JsonObject();
+            state.addProperty("peakPendingScans", peakPendingScans);
+            state.addProperty("pendingScansAfter", EthologyPacketHandler.getPendingScanCount());
+            state.addProperty("peakAdmissionPlayers", peakAdmissionPlayers);
+            state.addProperty("admissionPlayersAfter", ScanAdmission.getTrackedPlayers());
+            state.addProperty("peakDictionaryPlayers", peakDictionaryPlayers);
+            state.addProperty("dictionaryPlayersAfter", TraitDictionary.getTrackedPlayers());
+            state.addProperty("heapGrowthBytes", heapAfter - heapBefore);
+            root.add("state", state);
+
+            try {
+                Path directory = helper.getLevel().getServer().getServerDirectory().resolve(Ethology.MODID).resolve("loadtest");
+                Files.createDirectories(directory);
+                Path file = directory.resolve(scenario.name() + "-" + LocalDateTime.now().format(FILE_TIME) + ".json");
+                try (Writer writer = Files.newBufferedWriter(file)) {
+                    GSON.toJson(root, writer);
+                }
+                Ethology.LOGGER.info("Scan load test '{}' finished, report written to {}", scenario.name(), file);
+            } catch (IOException e) {
+                helper.fail("Could not write load-test report: " + e);
+                return;
+            }
+            helper.succeed();
+        }
+
+        private static JsonObject histogram(EthologyMetrics.Histogram histogram, double unit) {
+            JsonObject json = new JsonObject();
+            json.addProperty("count", histogram.getCount());
+            json.addProperty("mean", histogram.getMean() / unit);
+            json.addProperty("p50", histogram.getPercentile(0.5) / unit);
+            json.addProperty("p99", histogram.getPercentile(0.99) / unit);
+            json.addProperty("max", histogram.getMaxNanos() / unit);
+            return json;
+        }
+
+        private static long usedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.kjmaster.ethology.gametest;
+
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.core.ScanScheduler;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ownership rules of the {@link ScanScheduler}: a task lives while a player or the server wants it.
+ */
+@GameTestHolder(Ethology.MODID)
+@PrefixGameTestTemplate(false)
+public class ScanSchedulerTests {
+
+    @GameTest(template = "empty")
+    public static void warmupJoinSurvivesPlayerCancel(GameTestHelper helper) {
+        UUID player = UUID.randomUUID();
+        ScanScheduler.Task<String> task = ScanScheduler.submit(ScanScheduler.Priority.PREFETCH, player,
+                () -> CompletableFuture.completedFuture("analyzed"));
+
+        // The warm-up joins the player's prefetch, then the player scrolls away
+        task.join(ScanScheduler.Priority.PREFETCH, null);
+        ScanScheduler.cancel(player, ScanScheduler.Priority.PREFETCH);
+
+        helper.assertFalse(task.future().isDone(), "Pinned task was cancelled with its last player");
+        helper.succeedWhen(() -> helper.assertValueEqual(task.future().getNow(null), "analyzed", "task result"));
+    }
+
+    @GameTest(template = "empty")
+    public static void playerCancelDropsUnpinnedTask(GameTestHelper helper) {
+        UUID player = UUID.randomUUID();
+        ScanScheduler.Task<String> task = ScanScheduler.submit(ScanScheduler.Priority.PREFETCH, player,
+                () -> CompletableFuture.completedFuture("analyzed"));
+
+        ScanScheduler.cancel(player, ScanScheduler.Priority.PREFETCH);
+
+        helper.assertTrue(task.future().isDone() && task.future().getNow("analyzed") == null, "Task outlived its only player");
+        helper.succeed();
+    }
+}
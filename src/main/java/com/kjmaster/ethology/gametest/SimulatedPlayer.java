@@ -0,0 +1,159 @@
+package com.kjmaster.ethology.gametest;
+
+import com.kjmaster.ethology.network.ArchetypeNotModifiedPayload;
+import com.kjmaster.ethology.network.PayloadChunk;
+import com.kjmaster.ethology.network.PayloadStream;
+import com.kjmaster.ethology.network.RequestScanPayload;
+import com.kjmaster.ethology.network.ScanThrottledPayload;
+import com.kjmaster.ethology.network.SyncMobDataPayload;
+import com.kjmaster.ethology.network.TraitDictionary;
+import com.mojang.authlib.GameProfile;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.PacketSendListener;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.neoforged.neoforge.common.util.FakePlayer;
+import net.neoforged.neoforge.common.util.FakePlayerNetHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+
+/**
+ * A fake player whose connection, instead of writing to a socket, reports scan answers back to the load test.
+ * Each player has at most one request outstanding, like the real client, which only shows one mob at a time.
+ * Replies are matched to that request by type and instance, so a late answer to a superseded request is ignored.
+ */
+class SimulatedPlayer {
+
+    interface Listener {
+        void onAnswered(SimulatedPlayer player, String kind, long latencyNanos);
+
+        void onThrottled(SimulatedPlayer player, String kind);
+    }
+
+    private record Request(String kind, ResourceLocation typeId, @Nullable UUID instanceId, long sentAt) {
+        boolean matches(ResourceLocation typeId, @Nullable UUID instanceId) {
+            return this.typeId.equals(typeId) && Objects.equals(this.instanceId, instanceId);
+        }
+    }
+
+    final FakePlayer player;
+    private final Listener listener;
+
+    @Nullable
+    private Request pending;
+    // Chunks of the transfer being received; the server sends them back to back
+    @Nullable
+    private ByteArrayOutputStream assembling;
+
+    SimulatedPlayer(ServerLevel level, int index, Listener listener) {
+        UUID id = UUID.nameUUIDFromBytes(("ethology-load-" + index).getBytes());
+        this.player = new FakePlayer(level, new GameProfile(id, "ethology_load_" + index));
+        this.player.connection = new Connection(this);
+        this.listener = listener;
+    }
+
+    /**
+     * Marks a request as sent. Returns true if it replaced one that was never answered.
+     */
+    boolean begin(String kind, RequestScanPayload request) {
+        boolean superseded = pending != null;
+        pending = new Request(kind, request.typeId(), request.instanceId().orElse(null), System.nanoTime());
+        return superseded;
+    }
+
+    boolean isPending() {
+        return pending != null;
+    }
+
+    private void receive(CustomPacketPayload payload) {
+        switch (payload) {
+            case ScanThrottledPayload throttled -> {
+                if (pending == null) return;
+                boolean instance = pending.instanceId() != null;
+                boolean matches = instance
+                        ? throttled.kind() == ScanThrottledPayload.Kind.INSTANCE
+                        : throttled.kind() == ScanThrottledPayload.Kind.SELECTED
+                        && throttled.typeIds().contains(BuiltInRegistries.ENTITY_TYPE.getId(BuiltInRegistries.ENTITY_TYPE.get(pending.typeId())));
+                if (matches) {
+                    listener.onThrottled(this, pending.kind());
+                    pending = null;
+                }
+            }
+            case ArchetypeNotModifiedPayload notModified ->
+                    answered(BuiltInRegistries.ENTITY_TYPE.getKey(BuiltInRegistries.ENTITY_TYPE.byId(notModified.typeId())), null);
+            case SyncMobDataPayload sync -> answered(sync.info().getEntityId(), sync.info().getUuid());
+            case PayloadChunk chunk -> receiveChunk(chunk);
+            default -> {
+            }
+        }
+    }
+
+    private void answered(ResourceLocation typeId, @Nullable UUID instanceId) {
+        if (pending != null && pending.matches(typeId, instanceId)) {
+            listener.onAnswered(this, pending.kind(), System.nanoTime() - pending.sentAt());
+            pending = null;
+        }
+    }
+
+    /**
+     * Reassembles a streamed payload and reads just the type and instance of the analysis inside it.
+     * The trait definitions in front are skipped without touching the (client-side) trait dictionary.
+     */
+    private void receiveChunk(PayloadChunk chunk) {
+        if (chunk.index() == 0) assembling = new ByteArrayOutputStream();
+        if (assembling == null) return;
+        assembling.writeBytes(chunk.data());
+        if (chunk.index() < chunk.count() - 1) return;
+
+        byte[] data = assembling.toByteArray();
+        assembling = null;
+        if (!chunk.innerType().equals(SyncMobDataPayload.TYPE.id())) return;
+
+        RegistryFriendlyByteBuf buffer = null;
+        try {
+            byte[] raw = chunk.compressed() ? PayloadStream.inflate(data) : data;
+            buffer = new RegistryFriendlyByteBuf(Unpooled.wrappedBuffer(raw), player.registryAccess());
+            buffer.readVarInt(); // first handle
+            TraitDictionary.Template.STREAM_CODEC.apply(ByteBufCodecs.list()).decode(buffer);
+            buffer.readLong(); // content hash
+            ResourceLocation typeId = buffer.readResourceLocation();
+            UUID instanceId = buffer.readBoolean() ? buffer.readUUID() : null;
+            answered(typeId, instanceId);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed payload sent to a simulated player", e);
+        } finally {
+            if (buffer != null) buffer.release();
+        }
+    }
+
+    private static class Connection extends FakePlayerNetHandler {
+        private final SimulatedPlayer owner;
+
+        Connection(SimulatedPlayer owner) {
+            super(owner.player.serverLevel().getServer(), owner.player);
+            this.owner = owner;
+        }
+
+        @Override
+        public void send(Packet<?> packet) {
+            send(packet, null);
+        }
+
+        @Override
+        public void send(Packet<?> packet, @Nullable PacketSendListener listener) {
+            if (packet instanceof ClientboundCustomPayloadPacket custom) {
+                owner.receive(custom.payload());
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Tells the client that its copy of an archetype (identified by raw registry id) matches the server's content hash.
+ */
+public record ArchetypeNotModifiedPayload(int typeId) implements CustomPacketPayload {
+    public static final Type<ArchetypeNotModifiedPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "archetype_not_modified"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, ArchetypeNotModifiedPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.VAR_INT,
+            ArchetypeNotModifiedPayload::typeId,
+            ArchetypeNotModifiedPayload::new
+    );
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
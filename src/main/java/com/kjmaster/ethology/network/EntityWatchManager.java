@@ -0,0 +1,209 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Config;
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.api.MobTrait;
+import com.kjmaster.ethology.core.AiSnapshot;
+import com.kjmaster.ethology.core.AnalysisPipeline;
+import com.kjmaster.ethology.core.EthologyMetrics;
+import com.kjmaster.ethology.core.ScanScheduler;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Live "what is it doing" subscriptions.
+ * <p>
+ * Instead of re-running the full instance analysis, the server samples only the current state of each watched mob
+ * every few ticks and pushes the traits added or removed since the previous push. Watches end when the client
+ * replaces them, the mob unloads or dies, or the player moves out of range. Server thread only.
+ * <p>
+ * Deltas are diffed against the instance scan the client actually received, so a watch stays idle until that scan
+ * has been sent. Sampling shares the {@link ScanScheduler}'s per-tick budget: it gets whatever the scheduler left,
+ * and watches that do not fit carry over to the next tick in round-robin order.
+ */
+public class EntityWatchManager {
+
+    // Player -> (Watched Entity -> Watch)
+    private static final Map<UUID, Map<UUID, Watch>> WATCHES = new HashMap<>();
+    // Player -> states of the last instance scan sent to them, for watches that start after it was sent
+    private static final Map<UUID, Sent> LAST_INSTANCE = new HashMap<>();
+    // Watches waiting for their sample, oldest first
+    private static final Deque<WatchKey> DUE = new ArrayDeque<>();
+
+    private static final class Watch {
+        // States last pushed to the player, keyed by trait id; null until the instance scan is sent
+        @Nullable
+        private Map<ResourceLocation, MobTrait> lastSent;
+        private boolean queued;
+    }
+
+    private record WatchKey(UUID playerId, UUID entityId) {}
+
+    private record Sent(UUID entityId, Map<ResourceLocation, MobTrait> states) {}
+
+    /**
+     * Replaces the player's watches. Existing watches keep their state; new ones start from the instance scan
+     * already sent for that mob, or wait for it.
+     */
+    public static void setWatches(ServerPlayer player, List<UUID> entityIds) {
+        if (entityIds.isEmpty()) {
+            WATCHES.remove(player.getUUID());
+            return;
+        }
+
+        Map<UUID, Watch> previous = WATCHES.getOrDefault(player.getUUID(), Map.of());
+        Sent sent = LAST_INSTANCE.get(player.getUUID());
+        Map<UUID, Watch> watches = new LinkedHashMap<>();
+        for (UUID entityId : entityIds) {
+            Watch watch = previous.get(entityId);
+            if (watch == null) {
+                watch = new Watch();
+                if (sent != null && sent.entityId().equals(entityId)) {
+                    watch.lastSent = new HashMap<>(sent.states());
+                }
+            }
+            watches.put(entityId, watch);
+        }
+        WATCHES.put(player.getUUID(), watches);
+    }
+
+    /**
+     * An instance scan was sent to the player: it becomes the base that deltas for that mob are diffed against.
+     */
+    public static void onInstanceSent(ServerPlayer player, MobScopedInfo info) {
+        if (info.getUuid() == null) return;
+
+        Map<ResourceLocation, MobTrait> states = toStates(info);
+        LAST_INSTANCE.put(player.getUUID(), new Sent(info.getUuid(), states));
+
+        Map<UUID, Watch> watches = WATCHES.get(player.getUUID());
+        Watch watch = watches != null ? watches.get(info.getUuid()) : null;
+        if (watch != null) {
+            watch.lastSent = new HashMap<>(states);
+        }
+    }
+
+    public static void removePlayer(UUID playerId) {
+        WATCHES.remove(playerId);
+        LAST_INSTANCE.remove(playerId);
+    }
+
+    public static void clear() {
+        WATCHES.clear();
+        LAST_INSTANCE.clear();
+        DUE.clear();
+    }
+
+    /**
+     * Queues every watch each interval and samples as many as the tick budget allows. Called at the end of every
+     * server tick.
+     */
+    public static void tick(MinecraftServer server) {
+        if (WATCHES.isEmpty()) {
+            DUE.clear();
+            return;
+        }
+
+        // 1. A new round: queue every watch that has a base to diff against and is not still waiting from the last one
+        if (server.getTickCount() % Config.WATCH_INTERVAL_TICKS.get() == 0) {
+            WATCHES.forEach((playerId, watches) -> watches.forEach((entityId, watch) -> {
+                if (watch.lastSent != null && !watch.queued) {
+                    watch.queued = true;
+                    DUE.add(new WatchKey(playerId, entityId));
+                }
+            }));
+        }
+
+        // 2. Sample within what the scheduler left of the budget; always at least one, so watches never stall
+        long deadline = System.nanoTime() + Math.max(0, ScanScheduler.getRemainingBudgetNanos());
+        boolean sampled = false;
+        while (!DUE.isEmpty() && (!sampled || System.nanoTime() < deadline)) {
+            WatchKey key = DUE.poll();
+            Map<UUID, Watch> watches = WATCHES.get(key.playerId());
+            Watch watch = watches != null ? watches.get(key.entityId()) : null;
+            if (watch == null || !watch.queued) continue; // Replaced or stopped while queued
+
+            watch.queued = false;
+            sampled = true;
+            long start = System.nanoTime();
+            if (!update(server, key, watch)) {
+                watches.remove(key.entityId());
+                if (watches.isEmpty()) WATCHES.remove(key.playerId());
+            }
+            EthologyMetrics.record(EthologyMetrics.Phase.WATCH, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Samples one watched mob and pushes what changed. Returns false if the watch has ended.
+     */
+    private static boolean update(MinecraftServer server, WatchKey key, Watch watch) {
+        ServerPlayer player = server.getPlayerList().getPlayer(key.playerId());
+        if (player == null) return false;
+
+        // 1. Drop watches on mobs that are gone, dead, in another dimension or too far away
+        double maxDistanceSqr = Math.pow(Config.WATCH_RANGE.get(), 2);
+        Entity entity = player.serverLevel().getEntity(key.entityId());
+        if (!(entity instanceof LivingEntity living) || !living.isAlive() || living.distanceToSqr(player) > maxDistanceSqr) {
+            player.connection.send(MobStateDeltaPayload.ended(key.entityId()));
+            return false;
+        }
+
+        // 2. Sample the current state only
+        Map<ResourceLocation, MobTrait> current;
+        try {
+            current = sample(living);
+        } catch (Exception e) {
+            Ethology.LOGGER.warn("Failed to sample watched entity: {}", key.entityId(), e);
+            player.connection.send(MobStateDeltaPayload.ended(key.entityId()));
+            return false;
+        }
+
+        // 3. Push what changed since the last push
+        Map<ResourceLocation, MobTrait> last = watch.lastSent;
+        List<MobTrait> added = new ArrayList<>();
+        List<ResourceLocation> removed = new ArrayList<>();
+        current.forEach((id, trait) -> {
+            if (!trait.equals(last.get(id))) added.add(trait);
+        });
+        for (ResourceLocation id : last.keySet()) {
+            if (!current.containsKey(id)) removed.add(id);
+        }
+
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            player.connection.send(MobStateDeltaPayload.create(player, key.entityId(), added, removed));
+            watch.lastSent = current;
+        }
+        return true;
+    }
+
+    private static Map<ResourceLocation, MobTrait> sample(LivingEntity living) {
+        MobScopedInfo.Builder scratch = MobScopedInfo.builder(BuiltInRegistries.ENTITY_TYPE.getKey(living.getType()));
+        AiSnapshot snapshot = AiSnapshot.capture(living);
+        AnalysisPipeline.run(snapshot, scratch, AnalysisPipeline.Mode.STATE);
+        return toStates(scratch.build());
+    }
+
+    private static Map<ResourceLocation, MobTrait> toStates(MobScopedInfo info) {
+        Map<ResourceLocation, MobTrait> states = new HashMap<>();
+        for (MobTrait trait : info.getCurrentStates()) {
+            states.put(trait.id(), trait);
+        }
+        return states;
+    }
+}
@@ -0,0 +1,48 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.core.ArchetypeCache;
+import com.kjmaster.ethology.core.ScanScheduler;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.UUID;
+
+/**
+ * Game-bus hooks for per-connection network state.
+ */
+@EventBusSubscriber(modid = Ethology.MODID)
+public class EthologyNetworkEvents {
+
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            // Lets the client decide whether its on-disk archetype cache for this server can be trusted.
+            player.connection.send(new ServerFingerprintPayload(ArchetypeCache.getFingerprint()));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        removePlayer(event.getEntity().getUUID());
+    }
+
+    /**
+     * Drops everything held for a player who left (or a simulated player the load test is done with).
+     */
+    public static void removePlayer(UUID playerId) {
+        TraitDictionary.removePlayer(playerId);
+        EntityWatchManager.removePlayer(playerId);
+        ScanScheduler.cancelAll(playerId);
+        ScanAdmission.removePlayer(playerId);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        EthologyPacketHandler.flushBatches();
+        EntityWatchManager.tick(event.getServer());
+    }
+}
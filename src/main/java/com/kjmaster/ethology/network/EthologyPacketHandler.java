@@ -3,10 +3,21 @@ package com.kjmaster.ethology.network;
 import com.kjmaster.ethology.Ethology;
 import com.kjmaster.ethology.EthologyTags;
 import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.client.ClientArchetypeCache;
+import com.kjmaster.ethology.client.ClientWatchHandler;
+import com.kjmaster.ethology.core.AiSnapshot;
+import com.kjmaster.ethology.core.AnalysisExecutor;
+import com.kjmaster.ethology.core.ArchetypeCache;
+import com.kjmaster.ethology.core.ArchetypeDemand;
 import com.kjmaster.ethology.core.EntityAnalyzer;
 import com.kjmaster.ethology.core.EthologyDatabase;
+import com.kjmaster.ethology.core.EthologyEvents;
+import com.kjmaster.ethology.core.EthologyMetrics;
+import com.kjmaster.ethology.core.EthologyScanner;
+import com.kjmaster.ethology.core.ScanScheduler;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
@@ -15,35 +26,35 @@ import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
 import net.neoforged.neoforge.network.registration.PayloadRegistrar;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 @EventBusSubscriber(modid = Ethology.MODID)
 public class EthologyPacketHandler {
 
-    // Thread-safe cache to store analyzed archetype data.
-    private static final Map<EntityType<?>, MobScopedInfo> ARCHETYPE_CACHE = new ConcurrentHashMap<>();
-
     // Map to track ongoing scans to prevent duplicate processing for the same entity type.
     private static final Map<EntityType<?>, CompletableFuture<MobScopedInfo>> PENDING_SCANS = new ConcurrentHashMap<>();
 
-    // Rate Limiting: Track request rates per player UUID
-    private static final Map<UUID, RateLimiter> PLAYER_LIMITERS = new ConcurrentHashMap<>();
+    // Admission Control: Estimated cost of each kind of request, in tokens (see ScanAdmission).
+    // A cold archetype (instantiate + reflect) is the unit; cache hits only cost the send.
+    private static final double COST_CACHE_HIT = 0.25;
+    private static final double COST_STORED = 0.5;
+    private static final double COST_COLD = 1.0;
+    private static final double COST_INSTANCE = 1.0;
 
-    // Dedicated Executor for Analysis to keep the Main Thread free.
-    private static final ExecutorService ANALYSIS_EXECUTOR = Executors.newFixedThreadPool(
-            Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
-            r -> {
-                Thread t = new Thread(r, "Ethology-Analyzer");
-                t.setDaemon(true);
-                return t;
-            }
-    );
+    // Batch misses finishing within a tick are coalesced and sent together at the end of that tick (server thread only).
+    private static final Map<ServerPlayer, BatchResponse> OUTGOING_BATCHES = new LinkedHashMap<>();
+
+    // Scheduler tasks of archetype scans that may not have started yet, so later requesters can join them.
+    private static final Map<EntityType<?>, ScanScheduler.Task<MobScopedInfo>> PENDING_TASKS = new ConcurrentHashMap<>();
 
     @SubscribeEvent
     public static void register(RegisterPayloadHandlersEvent event) {
@@ -61,42 +72,122 @@ public class EthologyPacketHandler {
                 }
         );
 
+        registrar.playToServer(
+                RequestScanBatchPayload.TYPE,
+                RequestScanBatchPayload.STREAM_CODEC,
+                (payload, context) -> {
+                    if (context.player() instanceof ServerPlayer serverPlayer) {
+                        context.enqueueWork(() -> handleBatchScanRequest(serverPlayer, payload));
+                    }
+                }
+        );
+
+        registrar.playToServer(
+                WatchEntitiesPayload.TYPE,
+                WatchEntitiesPayload.STREAM_CODEC,
+                (payload, context) -> {
+                    if (context.player() instanceof ServerPlayer serverPlayer) {
+                        context.enqueueWork(() -> handleWatchRequest(serverPlayer, payload));
+                    }
+                }
+        );
+
         // Server -> Client
         registrar.playToClient(
                 SyncMobDataPayload.TYPE,
                 SyncMobDataPayload.STREAM_CODEC,
+                (payload, context) -> context.enqueueWork(() -> handleSyncMobData(payload))
+        );
+
+        registrar.playToClient(
+                SyncMobDataBatchPayload.TYPE,
+                SyncMobDataBatchPayload.STREAM_CODEC,
+                (payload, context) -> context.enqueueWork(() -> handleSyncMobDataBatch(payload))
+        );
+
+        // Large (compressed / chunked) versions of the two payloads above, see PayloadStream
+        registrar.playToClient(
+                PayloadChunk.TYPE,
+                PayloadChunk.STREAM_CODEC,
                 (payload, context) -> {
-                    context.enqueueWork(() -> {
-                        EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.get(payload.info().getEntityId());
-                        EthologyDatabase.register(type, payload.info());
-                    });
+                    if (payload.assembled() instanceof SyncMobDataPayload single) {
+                        context.enqueueWork(() -> handleSyncMobData(single));
+                    } else if (payload.assembled() instanceof SyncMobDataBatchPayload batch) {
+                        context.enqueueWork(() -> handleSyncMobDataBatch(batch));
+                    }
                 }
         );
-    }
 
-    private static void handleScanRequest(ServerPlayer player, RequestScanPayload payload) {
-        // IMPROVEMENT: Packet Safety / Rate Limiting
-        // Get or create a rate limiter for this player
-        RateLimiter limiter = PLAYER_LIMITERS.computeIfAbsent(player.getUUID(), k -> new RateLimiter(10, 2)); // Max 10 burst, refill 2/sec
+        registrar.playToClient(
+                ArchetypeNotModifiedPayload.TYPE,
+                ArchetypeNotModifiedPayload.STREAM_CODEC,
+                (payload, context) -> context.enqueueWork(() -> handleNotModified(payload.typeId()))
+        );
+
+        registrar.playToClient(
+                MobStateDeltaPayload.TYPE,
+                MobStateDeltaPayload.STREAM_CODEC,
+                (payload, context) -> context.enqueueWork(() -> ClientWatchHandler.handleDelta(payload))
+        );
 
-        // If the player has exceeded their rate limit, ignore the request.
-        if (!limiter.tryAcquire()) {
-            // Optionally log a warning if needed, but silent drop is safer for performance during spam attacks.
-            return;
-        }
+        registrar.playToClient(
+                ScanThrottledPayload.TYPE,
+                ScanThrottledPayload.STREAM_CODEC,
+                (payload, context) -> context.enqueueWork(() -> EthologyScanner.onThrottled(payload))
+        );
 
+        registrar.playToClient(
+                ServerFingerprintPayload.TYPE,
+                ServerFingerprintPayload.STREAM_CODEC,
+                (payload, context) -> context.enqueueWork(() -> ClientArchetypeCache.open(payload.fingerprint()))
+        );
+    }
+
+    /**
+     * Handles a single scan request on the server thread. Public so the load test can drive it with simulated players.
+     */
+    public static void handleScanRequest(ServerPlayer player, RequestScanPayload payload) {
         MinecraftServer server = player.serverLevel().getServer();
 
-        // 1. Instance Scan (Targeted Entity) - Keep on Main Thread
+        // The panel shows one mob at a time, so whatever this player asked for before and is still queued is not needed.
+        ScanScheduler.cancel(player.getUUID(), ScanScheduler.Priority.INSTANCE);
+        ScanScheduler.cancel(player.getUUID(), ScanScheduler.Priority.SELECTED);
+
+        // 1. Instance Scan (Targeted Entity)
+        // Only the snapshot is taken on the main thread (within the scheduler's budget); inspection runs on the analysis pool.
         if (payload.instanceId().isPresent()) {
             Entity target = player.serverLevel().getEntity(payload.instanceId().get());
             if (target instanceof LivingEntity living) {
-                try {
-                    MobScopedInfo info = EntityAnalyzer.analyze(living);
-                    player.connection.send(new SyncMobDataPayload(info));
-                } catch (Exception e) {
-                    Ethology.LOGGER.warn("Failed to analyze specific entity: {}", payload.instanceId(), e);
+                // Over budget: tell the client when to ask again instead of leaving its panel empty.
+                long retryAfter = ScanAdmission.tryAdmit(player.getUUID(), COST_INSTANCE);
+                if (retryAfter > 0) {
+                    player.connection.send(new ScanThrottledPayload(ScanThrottledPayload.Kind.INSTANCE, List.of(), retryAfter));
+                    return;
                 }
+
+                ScanScheduler.submit(ScanScheduler.Priority.INSTANCE, player.getUUID(), () -> {
+                    // The mob may have died or unloaded while queued
+                    if (living.isRemoved()) return CompletableFuture.completedFuture(null);
+                    EthologyEvents.InstanceScan snapshotEvent = EthologyEvents.beginInstanceScan();
+                    AiSnapshot snapshot = AiSnapshot.capture(living);
+                    EthologyEvents.endInstanceScan(snapshotEvent, snapshot.type(), "snapshot");
+                    return CompletableFuture.supplyAsync(() -> {
+                        EthologyEvents.InstanceScan event = EthologyEvents.beginInstanceScan();
+                        try {
+                            return EntityAnalyzer.analyze(snapshot);
+                        } catch (Exception e) {
+                            Ethology.LOGGER.warn("Failed to analyze specific entity: {}", payload.instanceId(), e);
+                            return null;
+                        } finally {
+                            EthologyEvents.endInstanceScan(event, snapshot.type(), "analyze");
+                        }
+                    }, AnalysisExecutor.get());
+                }).future().thenAcceptAsync(info -> {
+                    // Back on the main thread: the trait dictionary assigns handles in send order
+                    if (info == null || player.hasDisconnected()) return;
+                    PayloadStream.send(player, SyncMobDataPayload.create(player, info, 0L));
+                    EntityWatchManager.onInstanceSent(player, info);
+                }, server);
                 return;
             }
         }
@@ -104,110 +195,311 @@ public class EthologyPacketHandler {
         // 2. Archetype Scan
         EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.get(payload.typeId());
 
-        // Basic Validation
+        // Basic Validation (before admission, so unknown ids are neither charged nor throttled as the registry default)
         if (type == EntityType.PIG && !payload.typeId().equals(BuiltInRegistries.ENTITY_TYPE.getKey(EntityType.PIG))) return;
-        if (type.is(EthologyTags.NO_ANALYSIS)) return;
-        if (!type.canSummon()) return;
+        if (!isAnalyzable(type)) return;
 
-        // CHECK CACHE
-        if (ARCHETYPE_CACHE.containsKey(type)) {
-            player.connection.send(new SyncMobDataPayload(ARCHETYPE_CACHE.get(type)));
+        long knownHash = payload.knownHash().orElse(0L);
+        long retryAfter = ScanAdmission.tryAdmit(player.getUUID(), isUnchanged(type, knownHash) ? COST_CACHE_HIT : estimateCost(type));
+        if (retryAfter > 0) {
+            player.connection.send(new ScanThrottledPayload(ScanThrottledPayload.Kind.SELECTED,
+                    List.of(BuiltInRegistries.ENTITY_TYPE.getId(type)), retryAfter));
             return;
         }
 
-        // ASYNC ANALYSIS HANDLING
-        CompletableFuture<MobScopedInfo> future = PENDING_SCANS.computeIfAbsent(type, k -> {
+        // Remember what players look at, so future warm-ups analyze popular mobs first.
+        ArchetypeDemand.get(server).record(type);
 
-            // A. Main Thread: Create and Prepare Entity
-            LivingEntity living = null;
-            try {
-                Entity entity = type.create(player.serverLevel());
-                if (entity instanceof LivingEntity l) {
-                    living = l;
-                    try { living.tick(); } catch (Exception ignored) {}
-                } else {
-                    if (entity != null) entity.discard();
-                    return CompletableFuture.completedFuture(null);
-                }
-            } catch (Exception e) {
-                Ethology.LOGGER.warn("Failed to instantiate archetype for analysis: {}", payload.typeId(), e);
-                return CompletableFuture.completedFuture(null);
+        // 3. Conditional Request: the client's copy is current, so skip the scan and the full payload
+        if (isUnchanged(type, knownHash)) {
+            player.connection.send(new ArchetypeNotModifiedPayload(BuiltInRegistries.ENTITY_TYPE.getId(type)));
+            return;
+        }
+
+        // 4. Attach Response Handler (the hash is re-checked, since a fresh scan can reproduce the client's copy)
+        scanArchetype(type, player.serverLevel(), ScanScheduler.Priority.SELECTED, player.getUUID()).thenAcceptAsync(info -> {
+            if (info == null) return;
+            if (isUnchanged(type, knownHash)) {
+                player.connection.send(new ArchetypeNotModifiedPayload(BuiltInRegistries.ENTITY_TYPE.getId(type)));
+            } else {
+                PayloadStream.send(player, SyncMobDataPayload.create(player, info, ArchetypeCache.getContentHash(type).orElse(0L)));
             }
+        }, server);
+    }
 
-            final LivingEntity entityToAnalyze = living;
-
-            // B. Offload Thread: Heavy Reflection Analysis
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    MobScopedInfo info = EntityAnalyzer.analyze(entityToAnalyze);
-                    info.setUuid(null);
-                    return info;
-                } catch (Exception e) {
-                    Ethology.LOGGER.error("Async analysis error for {}", type, e);
-                    return null;
-                }
-            }, ANALYSIS_EXECUTOR).whenCompleteAsync((result, ex) -> {
-                // C. Main Thread: Cleanup & Cache Update
-                entityToAnalyze.discard();
+    private static void handleBatchScanRequest(ServerPlayer player, RequestScanBatchPayload payload) {
+        BatchResponse hits = new BatchResponse();
+        List<Integer> throttled = new ArrayList<>();
+        long retryAfter = 0;
+
+        // The client has moved on (e.g. scrolled away), so prefetches from its previous batch that have not started are cancelled.
+        ScanScheduler.cancel(player.getUUID(), ScanScheduler.Priority.PREFETCH);
+
+        // Batches are sent for prefetching, so they are not counted as demand for the warm-up.
+        for (int i = 0; i < payload.typeIds().size(); i++) {
+            // Unknown ids resolve to the registry default, so round-trip the id to validate it.
+            int rawId = payload.typeIds().get(i);
+            EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.byId(rawId);
+            if (BuiltInRegistries.ENTITY_TYPE.getId(type) != rawId || !isAnalyzable(type)) continue;
+            long knownHash = i < payload.knownHashes().size() ? payload.knownHashes().get(i) : 0L;
 
-                if (result != null) {
-                    ARCHETYPE_CACHE.put(type, result);
+            // Prefetches are optional, so misses are refused (before being charged) while the analysis queue is full.
+            // The client asks again when its viewport next changes.
+            boolean unchanged = isUnchanged(type, knownHash);
+            MobScopedInfo cached = ArchetypeCache.get(type);
+            if (!unchanged && cached == null && AnalysisExecutor.isSaturated()) {
+                EthologyMetrics.increment(EthologyMetrics.Counter.PREFETCH_REFUSED);
+                continue;
+            }
+
+            // Charge each entry by what it will actually cost; once the budget is spent the rest of the batch is
+            // refused, and the client re-sends it after the retry-after.
+            if (retryAfter == 0) {
+                retryAfter = ScanAdmission.tryAdmit(player.getUUID(), unchanged ? COST_CACHE_HIT : estimateCost(type));
+            }
+            if (retryAfter > 0) {
+                throttled.add(rawId);
+                continue;
+            }
+
+            // Cache hits (and unchanged copies) go out immediately in one packet
+            if (unchanged || cached != null) {
+                EthologyMetrics.increment(EthologyMetrics.Counter.ARCHETYPE_CACHE_HIT);
+                hits.add(type, cached, knownHash);
+                continue;
+            }
+
+            // Misses are prefetches: they queue behind direct requests and stream out as they finish
+            // (the future completes on the server thread)
+            scanArchetype(type, player.serverLevel(), ScanScheduler.Priority.PREFETCH, player.getUUID()).thenAccept(info -> {
+                if (info != null && !player.hasDisconnected()) {
+                    OUTGOING_BATCHES.computeIfAbsent(player, k -> new BatchResponse()).add(type, info, knownHash);
                 }
-                PENDING_SCANS.remove(type);
+            });
+        }
 
-            }, server);
-        });
+        sendBatched(player, hits);
+        if (!throttled.isEmpty()) {
+            player.connection.send(new ScanThrottledPayload(ScanThrottledPayload.Kind.PREFETCH, List.copyOf(throttled), retryAfter));
+        }
+    }
 
-        // 3. Attach Response Handler
-        future.thenAcceptAsync(info -> {
-            if (info != null) {
-                player.connection.send(new SyncMobDataPayload(info));
+    private static void handleWatchRequest(ServerPlayer player, WatchEntitiesPayload payload) {
+        // Stopping a watch is always allowed; starting one costs about as much as the instance scan it replaces.
+        if (!payload.entityIds().isEmpty()) {
+            long retryAfter = ScanAdmission.tryAdmit(player.getUUID(), COST_INSTANCE);
+            if (retryAfter > 0) {
+                player.connection.send(new ScanThrottledPayload(ScanThrottledPayload.Kind.WATCH, List.of(), retryAfter));
+                return;
             }
-        }, server);
+        }
+        EntityWatchManager.setWatches(player, payload.entityIds());
     }
 
     /**
-     * Clears the server-side archetype cache and rate limiters.
+     * Sends the batch misses that finished during this tick.
+     * Called at the end of every server tick.
      */
-    public static void clearCache() {
-        ARCHETYPE_CACHE.clear();
-        PENDING_SCANS.clear();
-        PLAYER_LIMITERS.clear();
+    public static void flushBatches() {
+        if (OUTGOING_BATCHES.isEmpty()) return;
+        OUTGOING_BATCHES.forEach((player, response) -> {
+            if (!player.hasDisconnected()) {
+                sendBatched(player, response);
+            }
+        });
+        OUTGOING_BATCHES.clear();
+    }
+
+    private static void sendBatched(ServerPlayer player, BatchResponse response) {
+        int max = SyncMobDataBatchPayload.MAX_INFOS;
+        int packets = Math.max((response.infos.size() + max - 1) / max, (response.notModified.size() + max - 1) / max);
+        for (int i = 0; i < packets; i++) {
+            PayloadStream.send(player, SyncMobDataBatchPayload.create(player,
+                    slice(response.infos, i, max), slice(response.hashes, i, max), slice(response.notModified, i, max)));
+        }
+    }
+
+    private static <T> List<T> slice(List<T> list, int index, int size) {
+        int start = Math.min(list.size(), index * size);
+        return List.copyOf(list.subList(start, Math.min(list.size(), start + size)));
+    }
+
+    private static void handleSyncMobData(SyncMobDataPayload payload) {
+        // Client Side
+        EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.get(payload.info().getEntityId());
+        EthologyDatabase.register(type, payload.info());
+        ClientArchetypeCache.put(type, payload.info(), payload.contentHash());
+    }
+
+    private static void handleSyncMobDataBatch(SyncMobDataBatchPayload payload) {
+        // Client Side
+        for (int i = 0; i < payload.infos().size(); i++) {
+            MobScopedInfo info = payload.infos().get(i);
+            EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.get(info.getEntityId());
+            EthologyDatabase.register(type, info);
+            ClientArchetypeCache.put(type, info, payload.hashes().get(i));
+        }
+        payload.notModified().forEach(EthologyPacketHandler::handleNotModified);
+    }
+
+    private static void handleNotModified(int rawId) {
+        // Client Side: our stored copy is confirmed, so show it and stop treating it as stale.
+        EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.byId(rawId);
+        MobScopedInfo info = ClientArchetypeCache.markFresh(type);
+        if (info != null && EthologyDatabase.get(type) == null) {
+            EthologyDatabase.register(type, info);
+        }
+    }
+
+    /**
+     * Returns true if the client's copy (identified by its content hash, 0 if none) matches the server's.
+     */
+    private static boolean isUnchanged(EntityType<?> type, long knownHash) {
+        if (knownHash == 0L) return false;
+        OptionalLong current = ArchetypeCache.getContentHash(type);
+        return current.isPresent() && current.getAsLong() == knownHash;
+    }
+
+    private static boolean isAnalyzable(EntityType<?> type) {
+        return !type.is(EthologyTags.NO_ANALYSIS) && type.canSummon();
+    }
+
+    /**
+     * Estimates what serving an archetype will cost, so cheap cache hits do not use up a full token.
+     */
+    private static double estimateCost(EntityType<?> type) {
+        if (ArchetypeCache.contains(type) || PENDING_SCANS.containsKey(type)) return COST_CACHE_HIT;
+        if (ArchetypeCache.isStored(type)) return COST_STORED;
+        return COST_COLD;
+    }
+
+    /**
+     * Returns true if the archetype for this type is held in the memory tier of the cache.
+     */
+    public static boolean isArchetypeCached(EntityType<?> type) {
+        return ArchetypeCache.contains(type);
     }
 
     /**
-     * Simple Token Bucket Rate Limiter.
+     * Analyzes an archetype, serving it from the cache or joining an in-flight scan where possible.
+     * Must be called on the server thread. The main-thread part (instantiating and ticking the entity) is queued on the
+     * {@link ScanScheduler} at the given priority, on behalf of the requester (null for the server itself),
+     * while the reflective analysis runs on the analysis executor.
+     * The returned future completes on the server thread, with null if the type cannot be analyzed
+     * or every requester cancelled before it started.
      */
-    private static class RateLimiter {
-        private final int capacity;
-        private final double refillRatePerMs;
-        private double tokens;
-        private long lastRefillTimestamp;
-
-        public RateLimiter(int capacity, double refillRatePerSecond) {
-            this.capacity = capacity;
-            this.refillRatePerMs = refillRatePerSecond / 1000.0;
-            this.tokens = capacity;
-            this.lastRefillTimestamp = System.currentTimeMillis();
+    public static CompletableFuture<MobScopedInfo> scanArchetype(EntityType<?> type, ServerLevel level,
+                                                                 ScanScheduler.Priority priority, @Nullable UUID requester) {
+        // CHECK CACHE (Memory Tier)
+        MobScopedInfo cached = ArchetypeCache.get(type);
+        if (cached != null) {
+            EthologyMetrics.increment(EthologyMetrics.Counter.ARCHETYPE_CACHE_HIT);
+            return CompletableFuture.completedFuture(cached);
+        }
+        EthologyMetrics.increment(EthologyMetrics.Counter.ARCHETYPE_CACHE_MISS);
+
+        // JOIN IN-FLIGHT SCAN (raising its priority if this request is more urgent)
+        CompletableFuture<MobScopedInfo> pending = PENDING_SCANS.get(type);
+        if (pending != null) {
+            EthologyMetrics.increment(EthologyMetrics.Counter.SCAN_COALESCED);
+            ScanScheduler.Task<MobScopedInfo> task = PENDING_TASKS.get(type);
+            if (task != null) task.join(priority, requester);
+            return pending;
         }
 
-        public synchronized boolean tryAcquire() {
-            refill();
-            if (tokens >= 1) {
-                tokens -= 1;
-                return true;
+        MinecraftServer server = level.getServer();
+
+        // ASYNC ANALYSIS HANDLING
+        ScanScheduler.Task<MobScopedInfo> task = ScanScheduler.submit(priority, requester, () -> {
+            // Disk Tier: reuse an analysis from a previous session, falling back to a fresh one if it cannot be read.
+            // The (rare) fallback runs outside the budget, since the task has already run by then.
+            if (!ArchetypeCache.isStored(type)) {
+                return analyzeArchetype(type, level);
+            }
+            EthologyMetrics.increment(EthologyMetrics.Counter.ARCHETYPE_DISK_LOAD);
+            return ArchetypeCache.loadStored(type).thenComposeAsync(stored -> stored != null
+                    ? CompletableFuture.completedFuture(stored)
+                    : analyzeArchetype(type, level), server);
+        });
+        PENDING_TASKS.put(type, task);
+
+        CompletableFuture<MobScopedInfo> future = task.future().whenCompleteAsync((result, ex) -> {
+            // C. Main Thread: Cache Update
+            if (result != null) {
+                ArchetypeCache.put(type, result);
             }
-            return false;
+            PENDING_SCANS.remove(type);
+            PENDING_TASKS.remove(type);
+        }, server);
+        PENDING_SCANS.put(type, future);
+        return future;
+    }
+
+    private static CompletableFuture<MobScopedInfo> analyzeArchetype(EntityType<?> type, ServerLevel level) {
+        // A. Main Thread: Create and Prepare Entity, then snapshot it and throw it away
+        AiSnapshot snapshot;
+        EthologyEvents.ArchetypeScan instantiateEvent = EthologyEvents.beginArchetypeScan();
+        try {
+            snapshot = EntityAnalyzer.snapshotArchetype(type, level);
+            if (snapshot == null) return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            Ethology.LOGGER.warn("Failed to instantiate archetype for analysis: {}", BuiltInRegistries.ENTITY_TYPE.getKey(type), e);
+            return CompletableFuture.completedFuture(null);
+        } finally {
+            EthologyEvents.endArchetypeScan(instantiateEvent, type, "instantiate");
         }
 
-        private void refill() {
-            long now = System.currentTimeMillis();
-            long delta = now - lastRefillTimestamp;
-            if (delta > 0) {
-                double tokensToAdd = delta * refillRatePerMs;
-                this.tokens = Math.min(capacity, this.tokens + tokensToAdd);
-                this.lastRefillTimestamp = now;
+        // B. Offload Thread: Heavy Reflection Analysis
+        return CompletableFuture.supplyAsync(() -> {
+            EthologyEvents.ArchetypeScan event = EthologyEvents.beginArchetypeScan();
+            try {
+                // Archetypes are not tied to the throwaway entity; hashing here keeps encoding off the server thread
+                MobScopedInfo info = EntityAnalyzer.analyze(snapshot);
+                return info != null ? ArchetypeCache.computeHash(type, info.withUuid(null)) : null;
+            } catch (Exception e) {
+                Ethology.LOGGER.error("Async analysis error for {}", type, e);
+                return null;
+            } finally {
+                EthologyEvents.endArchetypeScan(event, type, "analyze");
+            }
+        }, AnalysisExecutor.get());
+    }
+
+    /**
+     * Number of archetype scans in flight (queued or analyzing).
+     */
+    public static int getPendingScanCount() {
+        return PENDING_SCANS.size();
+    }
+
+    /**
+     * Clears the server-side archetype memory cache and rate limiters.
+     */
+    public static void clearCache() {
+        ArchetypeCache.clearMemory();
+        PENDING_SCANS.clear();
+        PENDING_TASKS.clear();
+        ScanScheduler.clear();
+        ScanAdmission.clear();
+        OUTGOING_BATCHES.clear();
+        EntityWatchManager.clear();
+    }
+
+    /**
+     * Accumulates one player's batch answers: full infos with their hashes, and ids confirmed as unchanged.
+     */
+    private static class BatchResponse {
+        private final List<MobScopedInfo> infos = new ArrayList<>();
+        private final List<Long> hashes = new ArrayList<>();
+        private final List<Integer> notModified = new ArrayList<>();
+
+        private void add(EntityType<?> type, MobScopedInfo info, long knownHash) {
+            if (isUnchanged(type, knownHash)) {
+                notModified.add(BuiltInRegistries.ENTITY_TYPE.getId(type));
+            } else if (info != null) {
+                infos.add(info);
+                hashes.add(ArchetypeCache.getContentHash(type).orElse(0L));
             }
         }
     }
-}
\ No newline at end of file
+}
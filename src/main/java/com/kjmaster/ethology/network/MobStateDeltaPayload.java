@@ -0,0 +1,64 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.api.MobTrait;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pushes the changes to a watched mob's current state since the previous push.
+ * Removed states are identified by trait id. {@code ended} is set when the server dropped the watch
+ * (entity unloaded or out of range); no further deltas follow for it.
+ */
+public record MobStateDeltaPayload(UUID entityId, List<MobTrait> added, List<ResourceLocation> removed, boolean ended,
+                                   TraitDictionary.Encoding traits) implements CustomPacketPayload {
+    public static final Type<MobStateDeltaPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "mob_state_delta"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, MobStateDeltaPayload> STREAM_CODEC = StreamCodec.of(
+            (buffer, payload) -> {
+                payload.traits().writeDefinitions(buffer);
+                buffer.writeUUID(payload.entityId());
+                buffer.writeVarInt(payload.added().size());
+                payload.added().forEach(trait -> payload.traits().writeTrait(buffer, trait));
+                ResourceLocation.STREAM_CODEC.apply(ByteBufCodecs.list()).encode(buffer, payload.removed());
+                buffer.writeBoolean(payload.ended());
+            },
+            buffer -> {
+                TraitDictionary.readDefinitions(buffer);
+                UUID entityId = buffer.readUUID();
+                int addedCount = buffer.readVarInt();
+                List<MobTrait> added = new ArrayList<>(addedCount);
+                for (int i = 0; i < addedCount; i++) {
+                    added.add(TraitDictionary.readTrait(buffer));
+                }
+                List<ResourceLocation> removed = ResourceLocation.STREAM_CODEC.apply(ByteBufCodecs.list()).decode(buffer);
+                return new MobStateDeltaPayload(entityId, added, removed, buffer.readBoolean(), TraitDictionary.Encoding.NONE);
+            }
+    );
+
+    /**
+     * Creates the payload for a specific player, assigning dictionary handles on that player's connection.
+     * Must be called on the server thread, in the order the payloads are sent.
+     */
+    public static MobStateDeltaPayload create(ServerPlayer player, UUID entityId, List<MobTrait> added, List<ResourceLocation> removed) {
+        return new MobStateDeltaPayload(entityId, added, removed, false, TraitDictionary.encodeTraits(player.getUUID(), added));
+    }
+
+    public static MobStateDeltaPayload ended(UUID entityId) {
+        return new MobStateDeltaPayload(entityId, List.of(), List.of(), true, TraitDictionary.Encoding.NONE);
+    }
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,53 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One piece of a (possibly compressed) mob data payload sent through {@link PayloadStream}.
+ * <p>
+ * Chunks of a transfer are sent back to back. When the last one is decoded, the client reassembles and inflates
+ * the data and decodes the original payload into {@code assembled}; for every other chunk it is null.
+ */
+public record PayloadChunk(int transferId, int index, int count, boolean compressed, ResourceLocation innerType, byte[] data,
+                           @Nullable CustomPacketPayload assembled) implements CustomPacketPayload {
+    public static final Type<PayloadChunk> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "payload_chunk"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, PayloadChunk> STREAM_CODEC = StreamCodec.ofMember(
+            PayloadChunk::write,
+            PayloadChunk::read
+    );
+
+    private static void write(PayloadChunk chunk, RegistryFriendlyByteBuf buffer) {
+        buffer.writeVarInt(chunk.transferId);
+        buffer.writeVarInt(chunk.index);
+        buffer.writeVarInt(chunk.count);
+        buffer.writeBoolean(chunk.compressed);
+        buffer.writeResourceLocation(chunk.innerType);
+        buffer.writeByteArray(chunk.data);
+    }
+
+    private static PayloadChunk read(RegistryFriendlyByteBuf buffer) {
+        int transferId = buffer.readVarInt();
+        int index = buffer.readVarInt();
+        int count = buffer.readVarInt();
+        boolean compressed = buffer.readBoolean();
+        ResourceLocation innerType = buffer.readResourceLocation();
+        byte[] data = buffer.readByteArray(PayloadStream.MAX_CHUNK_BYTES);
+
+        PayloadChunk chunk = new PayloadChunk(transferId, index, count, compressed, innerType, data, null);
+        // Reassemble while decoding, so trait dictionary definitions inside stay in packet order.
+        CustomPacketPayload assembled = PayloadStream.accept(chunk, buffer.registryAccess());
+        return assembled != null ? new PayloadChunk(transferId, index, count, compressed, innerType, new byte[0], assembled) : chunk;
+    }
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
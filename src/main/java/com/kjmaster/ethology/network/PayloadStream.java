@@ -0,0 +1,240 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Config;
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.core.EthologyMetrics;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Sends mob data payloads as pre-encoded bytes, deflating them above a size threshold and splitting
+ * anything still larger than the chunk size into sequenced {@link PayloadChunk}s.
+ * <p>
+ * Payloads are encoded once on the server thread, which also fixes their trait dictionary handles in send order.
+ * In-memory (singleplayer) connections never serialize payloads, so they get the original payload unchanged.
+ */
+public class PayloadStream {
+
+    // Hard limits, independent of config: a chunk must fit comfortably in a custom payload packet,
+    // and a reassembled payload may not grow without bound on the client.
+    static final int MAX_CHUNK_BYTES = 1 << 20;
+    private static final int MAX_TRANSFER_BYTES = 16 << 20;
+
+    // Payload types that may travel through the stream, with the codecs used to encode and decode them.
+    @SuppressWarnings("unchecked")
+    private static final Map<ResourceLocation, StreamCodec<RegistryFriendlyByteBuf, CustomPacketPayload>> CODECS = Map.of(
+            SyncMobDataPayload.TYPE.id(), (StreamCodec<RegistryFriendlyByteBuf, CustomPacketPayload>) (Object) SyncMobDataPayload.STREAM_CODEC,
+            SyncMobDataBatchPayload.TYPE.id(), (StreamCodec<RegistryFriendlyByteBuf, CustomPacketPayload>) (Object) SyncMobDataBatchPayload.STREAM_CODEC
+    );
+
+    private static final AtomicInteger NEXT_TRANSFER_ID = new AtomicInteger();
+
+    // Server statistics
+    private static final AtomicLong PAYLOADS = new AtomicLong();
+    private static final AtomicLong COMPRESSED_PAYLOADS = new AtomicLong();
+    private static final AtomicLong CHUNKED_PAYLOADS = new AtomicLong();
+    private static final AtomicLong RAW_BYTES = new AtomicLong();
+    private static final AtomicLong SENT_BYTES = new AtomicLong();
+    private static final AtomicLong COMPRESSED_RAW_BYTES = new AtomicLong();
+    private static final AtomicLong COMPRESSED_SENT_BYTES = new AtomicLong();
+    private static final AtomicLong ENCODE_NANOS = new AtomicLong();
+    private static final AtomicLong DEFLATE_NANOS = new AtomicLong();
+
+    // Client reassembly state (network thread; transfers arrive back to back, so one is in progress at a time)
+    private static int assemblingId = -1;
+    private static ByteArrayOutputStream assembling;
+
+    /**
+     * Sends a payload registered in {@link #CODECS} to the player. Must be called on the server thread.
+     */
+    public static void send(ServerPlayer player, CustomPacketPayload payload) {
+        if (player.connection.getConnection().isMemoryConnection()) {
+            long start = System.nanoTime();
+            player.connection.send(payload);
+            EthologyMetrics.record(EthologyMetrics.Phase.SEND, System.nanoTime() - start);
+            return;
+        }
+
+        ResourceLocation type = payload.type().id();
+        StreamCodec<RegistryFriendlyByteBuf, CustomPacketPayload> codec = CODECS.get(type);
+        if (codec == null) {
+            throw new IllegalArgumentException("Payload " + type + " cannot be sent through the payload stream");
+        }
+
+        // 1. Encode once
+        long start = System.nanoTime();
+        byte[] raw = encode(codec, payload, player.registryAccess());
+        long encoded = System.nanoTime();
+        ENCODE_NANOS.addAndGet(encoded - start);
+
+        // 2. Compress above the threshold, keeping the result only if it actually helps
+        byte[] data = raw;
+        boolean compressed = false;
+        if (raw.length >= Config.PAYLOAD_COMPRESSION_THRESHOLD.get()) {
+            byte[] deflated = deflate(raw);
+            DEFLATE_NANOS.addAndGet(System.nanoTime() - encoded);
+            if (deflated.length < raw.length) {
+                data = deflated;
+                compressed = true;
+                COMPRESSED_PAYLOADS.incrementAndGet();
+                COMPRESSED_RAW_BYTES.addAndGet(raw.length);
+                COMPRESSED_SENT_BYTES.addAndGet(deflated.length);
+            }
+        }
+
+        long split = System.nanoTime();
+        EthologyMetrics.record(EthologyMetrics.Phase.ENCODE, split - start);
+
+        // 3. Split into chunks
+        int chunkSize = Math.min(Config.PAYLOAD_CHUNK_SIZE.get(), MAX_CHUNK_BYTES);
+        int count = Math.max(1, (data.length + chunkSize - 1) / chunkSize);
+        int transferId = NEXT_TRANSFER_ID.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            byte[] part = Arrays.copyOfRange(data, i * chunkSize, Math.min(data.length, (i + 1) * chunkSize));
+            player.connection.send(new PayloadChunk(transferId, i, count, compressed, type, part, null));
+        }
+        EthologyMetrics.record(EthologyMetrics.Phase.SEND, System.nanoTime() - split);
+
+        PAYLOADS.incrementAndGet();
+        if (count > 1) CHUNKED_PAYLOADS.incrementAndGet();
+        RAW_BYTES.addAndGet(raw.length);
+        SENT_BYTES.addAndGet(data.length);
+
+        if (compressed) {
+            Ethology.LOGGER.debug("Sent {} as {} chunk(s): {} -> {} bytes ({}%)",
+                    type, count, raw.length, data.length, data.length * 100 / raw.length);
+        }
+    }
+
+    /**
+     * Client Side: adds a decoded chunk to the current transfer and returns the original payload once it is complete.
+     */
+    static CustomPacketPayload accept(PayloadChunk chunk, RegistryAccess registries) {
+        // A new transfer (index 0) always replaces an unfinished one; it can only be left over from a dropped connection.
+        if (chunk.index() == 0) {
+            assemblingId = chunk.transferId();
+            assembling = new ByteArrayOutputStream(chunk.data().length * chunk.count());
+        } else if (chunk.transferId() != assemblingId || assembling == null) {
+            throw new DecoderException("Out of order payload chunk " + chunk.index() + " of transfer " + chunk.transferId());
+        }
+
+        assembling.writeBytes(chunk.data());
+        if (assembling.size() > MAX_TRANSFER_BYTES) {
+            assembling = null;
+            throw new DecoderException("Payload transfer " + chunk.transferId() + " exceeded " + MAX_TRANSFER_BYTES + " bytes");
+        }
+        if (chunk.index() < chunk.count() - 1) return null;
+
+        byte[] data = assembling.toByteArray();
+        assembling = null;
+        assemblingId = -1;
+
+        StreamCodec<RegistryFriendlyByteBuf, CustomPacketPayload> codec = CODECS.get(chunk.innerType());
+        if (codec == null) {
+            throw new DecoderException("Unknown streamed payload type " + chunk.innerType());
+        }
+
+        try {
+            long start = System.nanoTime();
+            byte[] raw = chunk.compressed() ? inflate(data) : data;
+            if (chunk.compressed()) {
+                Ethology.LOGGER.debug("Inflated {}: {} -> {} bytes in {} us",
+                        chunk.innerType(), data.length, raw.length, (System.nanoTime() - start) / 1000);
+            }
+            return decode(codec, raw, registries);
+        } catch (DataFormatException e) {
+            throw new DecoderException("Corrupt compressed payload " + chunk.innerType(), e);
+        }
+    }
+
+    public static void clearClient() {
+        assembling = null;
+        assemblingId = -1;
+    }
+
+    /**
+     * Human-readable transfer statistics, shown by the /ethology network command.
+     */
+    public static String getStats() {
+        long compressedRaw = COMPRESSED_RAW_BYTES.get();
+        return String.format("%d payloads (%d chunked), %d -> %d bytes sent; %d compressed at %.1f%% of original; %.2fms encoding, %.2fms deflating",
+                PAYLOADS.get(), CHUNKED_PAYLOADS.get(),
+                RAW_BYTES.get(), SENT_BYTES.get(),
+                COMPRESSED_PAYLOADS.get(), compressedRaw == 0 ? 100.0 : COMPRESSED_SENT_BYTES.get() * 100.0 / compressedRaw,
+                ENCODE_NANOS.get() / 1.0e6, DEFLATE_NANOS.get() / 1.0e6);
+    }
+
+    private static byte[] encode(StreamCodec<RegistryFriendlyByteBuf, CustomPacketPayload> codec, CustomPacketPayload payload, RegistryAccess registries) {
+        RegistryFriendlyByteBuf buffer = new RegistryFriendlyByteBuf(Unpooled.buffer(), registries);
+        try {
+            codec.encode(buffer, payload);
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            return bytes;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static CustomPacketPayload decode(StreamCodec<RegistryFriendlyByteBuf, CustomPacketPayload> codec, byte[] bytes, RegistryAccess registries) {
+        RegistryFriendlyByteBuf buffer = new RegistryFriendlyByteBuf(Unpooled.wrappedBuffer(bytes), registries);
+        try {
+            return codec.decode(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static byte[] inflate(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed payload");
+                }
+                out.write(buffer, 0, n);
+                if (out.size() > MAX_TRANSFER_BYTES) {
+                    throw new DataFormatException("Compressed payload expands beyond " + MAX_TRANSFER_BYTES + " bytes");
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
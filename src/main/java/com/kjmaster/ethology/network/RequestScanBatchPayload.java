@@ -0,0 +1,35 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Requests archetype data for several entity types at once.
+ * Types are sent as raw registry ids (varints), which both sides share after registry sync.
+ * {@code knownHashes} runs parallel to the ids and holds the content hash of the client's copy, or 0 if it has none.
+ */
+public record RequestScanBatchPayload(List<Integer> typeIds, List<Long> knownHashes) implements CustomPacketPayload {
+    public static final int MAX_TYPES = 64;
+
+    public static final Type<RequestScanBatchPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "request_scan_batch"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, RequestScanBatchPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.VAR_INT.apply(ByteBufCodecs.list(MAX_TYPES)),
+            RequestScanBatchPayload::typeIds,
+            ByteBufCodecs.VAR_LONG.apply(ByteBufCodecs.list(MAX_TYPES)),
+            RequestScanBatchPayload::knownHashes,
+            RequestScanBatchPayload::new
+    );
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
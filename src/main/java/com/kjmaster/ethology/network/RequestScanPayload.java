@@ -10,7 +10,12 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Optional;
 import java.util.UUID;
 
-public record RequestScanPayload(ResourceLocation typeId, Optional<UUID> instanceId) implements CustomPacketPayload {
+/**
+ * Requests an archetype (no instance) or a specific mob's analysis.
+ * For archetypes, {@code knownHash} is the content hash of the copy the client already holds, if any;
+ * the server answers with {@link ArchetypeNotModifiedPayload} when it still matches.
+ */
+public record RequestScanPayload(ResourceLocation typeId, Optional<UUID> instanceId, Optional<Long> knownHash) implements CustomPacketPayload {
     public static final Type<RequestScanPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "request_scan"));
 
     public static final StreamCodec<RegistryFriendlyByteBuf, RequestScanPayload> STREAM_CODEC = StreamCodec.ofMember(
@@ -22,13 +27,17 @@ public record RequestScanPayload(ResourceLocation typeId, Optional<UUID> instanc
         buffer.writeResourceLocation(payload.typeId);
         buffer.writeBoolean(payload.instanceId.isPresent());
         payload.instanceId.ifPresent(buffer::writeUUID);
+        buffer.writeBoolean(payload.knownHash.isPresent());
+        payload.knownHash.ifPresent(buffer::writeLong);
     }
 
     private static RequestScanPayload read(RegistryFriendlyByteBuf buffer) {
         ResourceLocation typeId = buffer.readResourceLocation();
         boolean hasInstance = buffer.readBoolean();
         UUID uuid = hasInstance ? buffer.readUUID() : null;
-        return new RequestScanPayload(typeId, Optional.ofNullable(uuid));
+        boolean hasHash = buffer.readBoolean();
+        Long hash = hasHash ? buffer.readLong() : null;
+        return new RequestScanPayload(typeId, Optional.ofNullable(uuid), Optional.ofNullable(hash));
     }
 
     @Override
@@ -0,0 +1,122 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Config;
+import com.kjmaster.ethology.core.EthologyMetrics;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost-based admission control for scan requests: every request must fit both the player's token bucket
+ * and the server-wide one, so many players cannot add up to more work than the server allows.
+ * <p>
+ * Costs are in tokens, where a cold archetype (instantiate + reflect) is one token. Buckets are lock-free and read
+ * their size and refill rate from the config on every call, so changes apply immediately.
+ */
+public class ScanAdmission {
+
+    private static final Map<UUID, TokenBucket> PLAYER_BUCKETS = new ConcurrentHashMap<>();
+    private static final TokenBucket SERVER_BUCKET = new TokenBucket();
+
+    private static final AtomicLong ADMITTED = new AtomicLong();
+    private static final AtomicLong THROTTLED_PLAYER = new AtomicLong();
+    private static final AtomicLong THROTTLED_SERVER = new AtomicLong();
+
+    /**
+     * Charges the cost to the player's and the server's budget.
+     * Returns 0 if the request is admitted, otherwise how many milliseconds until it would be (nothing is charged then).
+     */
+    public static long tryAdmit(UUID playerId, double cost) {
+        long now = System.nanoTime();
+        try {
+            return admit(playerId, cost, now);
+        } finally {
+            EthologyMetrics.record(EthologyMetrics.Phase.ADMISSION, System.nanoTime() - now);
+        }
+    }
+
+    private static long admit(UUID playerId, double cost, long now) {
+        // 1. Player budget
+        TokenBucket player = PLAYER_BUCKETS.computeIfAbsent(playerId, k -> new TokenBucket());
+        long playerWait = player.tryAcquire(cost, Config.PLAYER_SCAN_BURST.get(), Config.PLAYER_SCAN_RATE.get(), now);
+        if (playerWait > 0) {
+            THROTTLED_PLAYER.incrementAndGet();
+            EthologyMetrics.increment(EthologyMetrics.Counter.REQUEST_THROTTLED);
+            return toRetryMillis(playerWait);
+        }
+
+        // 2. Server budget (the player's charge is refunded if the server is out)
+        long serverWait = SERVER_BUCKET.tryAcquire(cost, Config.SERVER_SCAN_BURST.get(), Config.SERVER_SCAN_RATE.get(), now);
+        if (serverWait > 0) {
+            player.refund(cost, Config.PLAYER_SCAN_RATE.get());
+            THROTTLED_SERVER.incrementAndGet();
+            EthologyMetrics.increment(EthologyMetrics.Counter.REQUEST_THROTTLED);
+            return toRetryMillis(serverWait);
+        }
+
+        ADMITTED.incrementAndGet();
+        return 0;
+    }
+
+    public static void removePlayer(UUID playerId) {
+        PLAYER_BUCKETS.remove(playerId);
+    }
+
+    public static int getTrackedPlayers() {
+        return PLAYER_BUCKETS.size();
+    }
+
+    public static void clear() {
+        PLAYER_BUCKETS.clear();
+        SERVER_BUCKET.reset();
+    }
+
+    /**
+     * Human-readable admission counters.
+     */
+    public static String getStats() {
+        return String.format("%d admitted, %d throttled by player budget, %d by server budget, %d players tracked",
+                ADMITTED.get(), THROTTLED_PLAYER.get(), THROTTLED_SERVER.get(), PLAYER_BUCKETS.size());
+    }
+
+    private static long toRetryMillis(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+    }
+
+    /**
+     * A token bucket kept as a single "theoretical arrival time" (the generic cell rate algorithm):
+     * each admitted cost pushes it forward by cost / rate, and a request fits while the result stays within
+     * one burst of now. That makes acquiring a single compare-and-set, with the retry-after falling out of the same sum.
+     */
+    static final class TokenBucket {
+        // Long.MIN_VALUE means "full"
+        private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * Returns 0 if the cost was charged, otherwise the nanoseconds until it would fit.
+         */
+        long tryAcquire(double cost, double capacity, double ratePerSecond, long now) {
+            double nanosPerToken = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+            long increment = (long) (cost * nanosPerToken);
+            long burst = (long) (capacity * nanosPerToken);
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + increment;
+                long wait = next - burst - now;
+                if (wait > 0) return wait;
+                if (arrival.compareAndSet(current, next)) return 0;
+            }
+        }
+
+        void refund(double cost, double ratePerSecond) {
+            arrival.addAndGet(-(long) (cost * TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        }
+
+        void reset() {
+            arrival.set(Long.MIN_VALUE);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Tells the client that scan requests were refused by admission control, and when to try again.
+ * The kind says which request was refused (the targeted mob, the selected archetype, prefetches or a live watch);
+ * type ids are raw registry ids of the refused archetypes (empty for the targeted mob and watches).
+ */
+public record ScanThrottledPayload(Kind kind, List<Integer> typeIds, long retryAfterMs) implements CustomPacketPayload {
+    public static final Type<ScanThrottledPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "scan_throttled"));
+
+    public enum Kind {
+        INSTANCE,
+        SELECTED,
+        PREFETCH,
+        WATCH
+    }
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, ScanThrottledPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.VAR_INT.map(i -> Kind.values()[i], Kind::ordinal),
+            ScanThrottledPayload::kind,
+            ByteBufCodecs.VAR_INT.apply(ByteBufCodecs.list(RequestScanBatchPayload.MAX_TYPES)),
+            ScanThrottledPayload::typeIds,
+            ByteBufCodecs.VAR_LONG,
+            ScanThrottledPayload::retryAfterMs,
+            ScanThrottledPayload::new
+    );
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,28 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sent to each player on login. Identifies the mods and entity types the server analyzes with,
+ * so the client knows whether archetypes it cached for this server are still valid.
+ */
+public record ServerFingerprintPayload(long fingerprint) implements CustomPacketPayload {
+    public static final Type<ServerFingerprintPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "server_fingerprint"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, ServerFingerprintPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.VAR_LONG,
+            ServerFingerprintPayload::fingerprint,
+            ServerFingerprintPayload::new
+    );
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
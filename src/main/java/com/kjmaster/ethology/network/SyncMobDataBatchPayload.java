@@ -0,0 +1,67 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import com.kjmaster.ethology.api.MobScopedInfo;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carries several archetype analyses in one packet, in answer to a {@link RequestScanBatchPayload}.
+ * Traits are written through the connection's {@link TraitDictionary}. {@code hashes} runs parallel to the infos,
+ * and {@code notModified} lists the raw ids of types whose client copy matched the server's content hash.
+ */
+public record SyncMobDataBatchPayload(List<MobScopedInfo> infos, List<Long> hashes, List<Integer> notModified,
+                                      TraitDictionary.Encoding traits) implements CustomPacketPayload {
+    public static final int MAX_INFOS = RequestScanBatchPayload.MAX_TYPES;
+
+    public static final Type<SyncMobDataBatchPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "sync_mob_data_batch"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, SyncMobDataBatchPayload> STREAM_CODEC = StreamCodec.of(
+            (buffer, payload) -> {
+                payload.traits().writeDefinitions(buffer);
+                buffer.writeVarInt(payload.infos().size());
+                for (int i = 0; i < payload.infos().size(); i++) {
+                    buffer.writeLong(payload.hashes().get(i));
+                    MobScopedInfo.write(buffer, payload.infos().get(i), payload.traits()::writeTrait);
+                }
+                ByteBufCodecs.VAR_INT.apply(ByteBufCodecs.list(MAX_INFOS)).encode(buffer, payload.notModified());
+            },
+            buffer -> {
+                TraitDictionary.readDefinitions(buffer);
+                int count = buffer.readVarInt();
+                if (count > MAX_INFOS) {
+                    throw new DecoderException(count + " elements exceeded max size of: " + MAX_INFOS);
+                }
+                List<MobScopedInfo> infos = new ArrayList<>(count);
+                List<Long> hashes = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    hashes.add(buffer.readLong());
+                    infos.add(MobScopedInfo.read(buffer, TraitDictionary::readTrait));
+                }
+                List<Integer> notModified = ByteBufCodecs.VAR_INT.apply(ByteBufCodecs.list(MAX_INFOS)).decode(buffer);
+                return new SyncMobDataBatchPayload(infos, hashes, notModified, TraitDictionary.Encoding.NONE);
+            }
+    );
+
+    /**
+     * Creates the payload for a specific player, assigning dictionary handles on that player's connection.
+     * Must be called on the server thread, in the order the payloads are sent.
+     */
+    public static SyncMobDataBatchPayload create(ServerPlayer player, List<MobScopedInfo> infos, List<Long> hashes, List<Integer> notModified) {
+        return new SyncMobDataBatchPayload(infos, hashes, notModified, TraitDictionary.encode(player.getUUID(), infos));
+    }
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
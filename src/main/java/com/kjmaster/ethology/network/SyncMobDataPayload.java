@@ -6,19 +6,41 @@ import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
 import org.jetbrains.annotations.NotNull;
 
-public record SyncMobDataPayload(MobScopedInfo info) implements CustomPacketPayload {
+import java.util.List;
+
+/**
+ * Sends one analysis to the client. Traits are written through the connection's {@link TraitDictionary}.
+ * {@code contentHash} identifies archetype content for later conditional requests; it is 0 for instance scans.
+ */
+public record SyncMobDataPayload(MobScopedInfo info, long contentHash, TraitDictionary.Encoding traits) implements CustomPacketPayload {
     public static final Type<SyncMobDataPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "sync_mob_data"));
 
-    public static final StreamCodec<RegistryFriendlyByteBuf, SyncMobDataPayload> STREAM_CODEC = StreamCodec.composite(
-            MobScopedInfo.STREAM_CODEC,
-            SyncMobDataPayload::info,
-            SyncMobDataPayload::new
+    public static final StreamCodec<RegistryFriendlyByteBuf, SyncMobDataPayload> STREAM_CODEC = StreamCodec.of(
+            (buffer, payload) -> {
+                payload.traits().writeDefinitions(buffer);
+                buffer.writeLong(payload.contentHash());
+                MobScopedInfo.write(buffer, payload.info(), payload.traits()::writeTrait);
+            },
+            buffer -> {
+                TraitDictionary.readDefinitions(buffer);
+                long contentHash = buffer.readLong();
+                return new SyncMobDataPayload(MobScopedInfo.read(buffer, TraitDictionary::readTrait), contentHash, TraitDictionary.Encoding.NONE);
+            }
     );
 
+    /**
+     * Creates the payload for a specific player, assigning dictionary handles on that player's connection.
+     * Must be called on the server thread, in the order the payloads are sent.
+     */
+    public static SyncMobDataPayload create(ServerPlayer player, MobScopedInfo info, long contentHash) {
+        return new SyncMobDataPayload(info, contentHash, TraitDictionary.encode(player.getUUID(), List.of(info)));
+    }
+
     @Override
     public @NotNull Type<? extends CustomPacketPayload> type() {
         return TYPE;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.api.MobScopedInfo;
+import com.kjmaster.ethology.api.MobTrait;
+import com.kjmaster.ethology.api.TraitType;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-connection dictionary of trait templates, used to shrink mob data packets.
+ * <p>
+ * A template is everything about a trait except its arguments. The first time the server sends a template
+ * on a connection, it is defined under the next varint handle; afterwards, traits only carry the handle and their args.
+ * Both sides assign handles in packet order, so the dictionaries stay in step without acknowledgements.
+ * <p>
+ * The client side is filled while decoding (on the network thread), which keeps definitions ahead of their uses.
+ * On an in-memory (singleplayer) connection payloads are never encoded, so neither side is touched.
+ */
+public class TraitDictionary {
+
+    // Server: handles assigned per player (server thread only)
+    private static final Map<UUID, Map<Template, Integer>> SERVER_HANDLES = new ConcurrentHashMap<>();
+
+    // Client: templates received on the current connection, indexed by handle
+    private static final List<Template> CLIENT_TEMPLATES = new ArrayList<>();
+
+    /**
+     * The shared part of a trait. Icons travel as item registry ids, so icon components are not sent.
+     */
+    public record Template(ResourceLocation id, Item icon, String translationKey, TraitType type) {
+
+        public static final StreamCodec<RegistryFriendlyByteBuf, Template> STREAM_CODEC = StreamCodec.composite(
+                ResourceLocation.STREAM_CODEC, Template::id,
+                ByteBufCodecs.registry(Registries.ITEM), Template::icon,
+                ByteBufCodecs.STRING_UTF8, Template::translationKey,
+                ByteBufCodecs.VAR_INT.map(i -> TraitType.values()[i], TraitType::ordinal), Template::type,
+                Template::new
+        );
+
+        public static Template of(MobTrait trait) {
+            return new Template(trait.id(), trait.icon().getItem(), trait.translationKey(), trait.type());
+        }
+
+        public MobTrait withArgs(List<String> args) {
+            return new MobTrait(id, new ItemStack(icon), translationKey, args, type);
+        }
+    }
+
+    /**
+     * The handles a payload needs, plus the templates it has to define first.
+     * Built on the server thread when the payload is created, then written by the network thread.
+     */
+    public record Encoding(int firstHandle, List<Template> definitions, Map<Template, Integer> handles) {
+
+        /** Used by decoded payloads, which are never re-encoded. */
+        public static final Encoding NONE = new Encoding(0, List.of(), Map.of());
+
+        public void writeDefinitions(RegistryFriendlyByteBuf buffer) {
+            buffer.writeVarInt(firstHandle);
+            Template.STREAM_CODEC.apply(ByteBufCodecs.list()).encode(buffer, definitions);
+        }
+
+        public void writeTrait(RegistryFriendlyByteBuf buffer, MobTrait trait) {
+            Integer handle = handles.get(Template.of(trait));
+            if (handle == null) {
+                throw new IllegalStateException("Trait " + trait.id() + " was not registered in this payload's encoding");
+            }
+            buffer.writeVarInt(handle);
+            ByteBufCodecs.STRING_UTF8.apply(ByteBufCodecs.list()).encode(buffer, trait.args());
+        }
+    }
+
+    /**
+     * Assigns handles for every trait in the given infos, defining the templates this player has not seen yet.
+     */
+    public static Encoding encode(UUID playerId, Collection<MobScopedInfo> infos) {
+        List<MobTrait> traits = new ArrayList<>();
+        for (MobScopedInfo info : infos) {
+            traits.addAll(info.getCapabilities());
+            traits.addAll(info.getCurrentStates());
+        }
+        return encodeTraits(playerId, traits);
+    }
+
+    /**
+     * Assigns handles for the given traits, defining the templates this player has not seen yet.
+     */
+    public static Encoding encodeTraits(UUID playerId, Collection<MobTrait> traits) {
+        Map<Template, Integer> known = SERVER_HANDLES.computeIfAbsent(playerId, k -> new HashMap<>());
+        int firstHandle = known.size();
+        List<Template> definitions = new ArrayList<>();
+        Map<Template, Integer> handles = new HashMap<>();
+
+        for (MobTrait trait : traits) {
+            Template template = Template.of(trait);
+            Integer handle = known.get(template);
+            if (handle == null) {
+                handle = known.size();
+                known.put(template, handle);
+                definitions.add(template);
+            }
+            handles.put(template, handle);
+        }
+        return new Encoding(firstHandle, List.copyOf(definitions), handles);
+    }
+
+    /**
+     * Reads the definitions at the start of a payload into the client dictionary.
+     */
+    public static void readDefinitions(RegistryFriendlyByteBuf buffer) {
+        int firstHandle = buffer.readVarInt();
+        List<Template> definitions = Template.STREAM_CODEC.apply(ByteBufCodecs.list()).decode(buffer);
+        synchronized (CLIENT_TEMPLATES) {
+            for (int i = 0; i < definitions.size(); i++) {
+                int handle = firstHandle + i;
+                if (handle < CLIENT_TEMPLATES.size()) {
+                    CLIENT_TEMPLATES.set(handle, definitions.get(i));
+                } else if (handle == CLIENT_TEMPLATES.size()) {
+                    CLIENT_TEMPLATES.add(definitions.get(i));
+                } else {
+                    throw new IllegalStateException("Trait handle " + handle + " defined out of order");
+                }
+            }
+        }
+    }
+
+    public static MobTrait readTrait(RegistryFriendlyByteBuf buffer) {
+        int handle = buffer.readVarInt();
+        List<String> args = ByteBufCodecs.STRING_UTF8.apply(ByteBufCodecs.list()).decode(buffer);
+        Template template;
+        synchronized (CLIENT_TEMPLATES) {
+            if (handle < 0 || handle >= CLIENT_TEMPLATES.size()) {
+                throw new IllegalStateException("Unknown trait handle " + handle);
+            }
+            template = CLIENT_TEMPLATES.get(handle);
+        }
+        return template.withArgs(args);
+    }
+
+    public static void removePlayer(UUID playerId) {
+        SERVER_HANDLES.remove(playerId);
+    }
+
+    public static int getTrackedPlayers() {
+        return SERVER_HANDLES.size();
+    }
+
+    public static void clearClient() {
+        synchronized (CLIENT_TEMPLATES) {
+            CLIENT_TEMPLATES.clear();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.kjmaster.ethology.network;
+
+import com.kjmaster.ethology.Ethology;
+import net.minecraft.core.UUIDUtil;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Replaces the set of entities the player is watching. An empty list stops all watches.
+ */
+public record WatchEntitiesPayload(List<UUID> entityIds) implements CustomPacketPayload {
+    public static final int MAX_WATCHES = 8;
+
+    public static final Type<WatchEntitiesPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(Ethology.MODID, "watch_entities"));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, WatchEntitiesPayload> STREAM_CODEC = StreamCodec.composite(
+            UUIDUtil.STREAM_CODEC.apply(ByteBufCodecs.list(MAX_WATCHES)),
+            WatchEntitiesPayload::entityIds,
+            WatchEntitiesPayload::new
+    );
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}